@@ -0,0 +1,28 @@
+package com.github.moravcik.configtracker.benchmark;
+
+import com.github.moravcik.configtracker.lib.converter.ConfigAttributeConverter;
+import com.github.moravcik.configtracker.lib.converter.ConfigEncoding;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Config converter of each encoding, only benchmarks using this state run once per encoding.
+ */
+@State(Scope.Benchmark)
+public class ConfigEncodingState {
+
+    @Param({"JSON", "SMILE", "SMILE_DEFLATE"})
+    public ConfigEncoding encoding;
+
+    public ConfigAttributeConverter configConverter;
+    public AttributeValue configAttribute;
+
+    @Setup
+    public void setup(ConfigState config) {
+        configConverter = new ConfigAttributeConverter(encoding);
+        configAttribute = configConverter.transformFrom(config.changed);
+    }
+}
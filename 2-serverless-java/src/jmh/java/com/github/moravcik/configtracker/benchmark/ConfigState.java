@@ -0,0 +1,58 @@
+package com.github.moravcik.configtracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.converter.ConfigPathChangeListConverter;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.ObjectUtils;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+
+/**
+ * Shared benchmark input, size 1 corresponds to the README example config.
+ */
+@State(Scope.Benchmark)
+public class ConfigState {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"1", "100", "1000", "5000"})
+    public int size;
+
+    @Param({"0.1"})
+    public double changeRatio;
+
+    public Config baseline;
+    public Config changed;
+    public JsonNode baselineNode;
+    public JsonNode patchNode;
+    public List<ConfigPathChange> pathChanges;
+
+    public final ConfigPathChangeListConverter pathChangeListConverter = new ConfigPathChangeListConverter();
+    public AttributeValue pathChangesAttribute;
+
+    @Setup
+    public void setup() {
+        SyntheticConfigGenerator generator = new SyntheticConfigGenerator(size, size + 1, 42);
+        baseline = generator.baseline();
+        changed = generator.changed(changeRatio);
+        baselineNode = objectMapper.valueToTree(baseline);
+        patchNode = generator.patch();
+
+        pathChanges = ObjectUtils.calculateDifferences(baseline, changed, false).stream()
+                .map(diff -> new ConfigPathChange(
+                        ConfigPathChange.ConfigPathChangeType.valueOf(diff.type.name()),
+                        diff.path,
+                        diff.oldValue,
+                        diff.newValue))
+                .toList();
+
+        pathChangesAttribute = pathChangeListConverter.transformFrom(pathChanges);
+    }
+}
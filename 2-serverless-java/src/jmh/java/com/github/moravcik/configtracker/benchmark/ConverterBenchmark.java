@@ -0,0 +1,42 @@
+package com.github.moravcik.configtracker.benchmark;
+
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import org.openjdk.jmh.annotations.*;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Benchmark
+    public AttributeValue configWrite(ConfigState state, ConfigEncodingState encoding) {
+        return encoding.configConverter.transformFrom(state.changed);
+    }
+
+    @Benchmark
+    public Config configRead(ConfigEncodingState encoding) {
+        return encoding.configConverter.transformTo(encoding.configAttribute);
+    }
+
+    @Benchmark
+    public Config configRoundTrip(ConfigState state, ConfigEncodingState encoding) {
+        return encoding.configConverter.transformTo(encoding.configConverter.transformFrom(state.changed));
+    }
+
+    @Benchmark
+    public List<ConfigPathChange> pathChangeListRead(ConfigState state) {
+        return state.pathChangeListConverter.transformTo(state.pathChangesAttribute);
+    }
+
+    @Benchmark
+    public List<ConfigPathChange> pathChangeListRoundTrip(ConfigState state) {
+        return state.pathChangeListConverter.transformTo(state.pathChangeListConverter.transformFrom(state.pathChanges));
+    }
+}
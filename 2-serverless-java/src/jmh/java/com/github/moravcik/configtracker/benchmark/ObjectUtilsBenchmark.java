@@ -0,0 +1,31 @@
+package com.github.moravcik.configtracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.moravcik.configtracker.lib.utils.ObjectUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectUtilsBenchmark {
+
+    @Benchmark
+    public List<ObjectUtils.Difference> calculateDifferencesFlat(ConfigState state) {
+        return ObjectUtils.calculateDifferences(state.baseline, state.changed, true);
+    }
+
+    @Benchmark
+    public List<ObjectUtils.Difference> calculateDifferencesReduced(ConfigState state) {
+        return ObjectUtils.calculateDifferences(state.baseline, state.changed, false);
+    }
+
+    @Benchmark
+    public JsonNode deepMerge(ConfigState state) {
+        return ObjectUtils.deepMerge(state.baselineNode, state.patchNode);
+    }
+}
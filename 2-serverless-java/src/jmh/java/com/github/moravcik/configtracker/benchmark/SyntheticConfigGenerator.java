@@ -0,0 +1,131 @@
+package com.github.moravcik.configtracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.moravcik.configtracker.lib.types.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates configs of configurable size, starting from the README example (1 exception, 2 levels)
+ * up to configs with thousands of exceptions and approval levels. Same seed gives the same configs.
+ */
+public class SyntheticConfigGenerator {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int exceptions;
+    private final int levels;
+    private final long seed;
+
+    public SyntheticConfigGenerator(int exceptions, int levels, long seed) {
+        this.exceptions = exceptions;
+        this.levels = levels;
+        this.seed = seed;
+    }
+
+    /**
+     * Initial version of the config.
+     */
+    public Config baseline() {
+        Random random = new Random(seed);
+
+        Config.CreditPolicy creditPolicy = new Config.CreditPolicy();
+        creditPolicy.setMaxCreditLimit(50000.0);
+        creditPolicy.setMinCreditScore(620.0);
+        creditPolicy.setCurrency(Config.CreditPolicy.Currency.EUR);
+        List<Config.CreditPolicy.Exception> exceptionList = new ArrayList<>();
+        for (int i = 0; i < exceptions; i++) {
+            Config.CreditPolicy.Exception exception = new Config.CreditPolicy.Exception();
+            exception.setSegment(i == 0 ? "VIP" : "SEGMENT-" + i);
+            exception.setMaxCreditLimit(i == 0 ? 150000.0 : 1000.0 * (1 + random.nextInt(500)));
+            exception.setRequiresTwoManRule(i == 0 || random.nextBoolean());
+            exceptionList.add(exception);
+        }
+        creditPolicy.setExceptions(exceptionList);
+
+        Config.ApprovalPolicy approvalPolicy = new Config.ApprovalPolicy();
+        approvalPolicy.setTwoManRule(true);
+        approvalPolicy.setAutoApproveThreshold(2000.0);
+        Config.ApprovalPolicy.Level.Role[] roles = Config.ApprovalPolicy.Level.Role.values();
+        List<Config.ApprovalPolicy.Level> levelList = new ArrayList<>();
+        for (int i = 0; i < levels; i++) {
+            Config.ApprovalPolicy.Level level = new Config.ApprovalPolicy.Level();
+            level.setRole(roles[i % roles.length]);
+            level.setLimit(10000.0 * (i + 1) + (i < 2 ? 0 : random.nextInt(1000)));
+            levelList.add(level);
+        }
+        approvalPolicy.setLevels(levelList);
+
+        Config.RiskScoring.Weights weights = new Config.RiskScoring.Weights();
+        weights.setIncomeToDebtRatio(0.4);
+        weights.setAge(0.1);
+        weights.setHistoryLengthMonths(0.2);
+        weights.setDelinquencyCount(0.3);
+        Config.RiskScoring.Thresholds thresholds = new Config.RiskScoring.Thresholds();
+        thresholds.setLow(700.0);
+        thresholds.setMedium(650.0);
+        thresholds.setHigh(600.0);
+        Config.RiskScoring riskScoring = new Config.RiskScoring();
+        riskScoring.setWeights(weights);
+        riskScoring.setThresholds(thresholds);
+
+        Config config = new Config();
+        config.setCreditPolicy(creditPolicy);
+        config.setApprovalPolicy(approvalPolicy);
+        config.setRiskScoring(riskScoring);
+        return config;
+    }
+
+    /**
+     * Next version of the baseline config, with given ratio of exceptions and levels updated,
+     * last exception removed, one level added and some top-level values updated or removed.
+     */
+    public Config changed(double changeRatio) {
+        Random random = new Random(seed + 1);
+        Config config = baseline();
+
+        List<Config.CreditPolicy.Exception> exceptionList = config.getCreditPolicy().getExceptions();
+        for (Config.CreditPolicy.Exception exception : exceptionList) {
+            if (random.nextDouble() < changeRatio) {
+                exception.setMaxCreditLimit(exception.getMaxCreditLimit() + 1000.0);
+                exception.setRequiresTwoManRule(!exception.getRequiresTwoManRule());
+            }
+        }
+        if (exceptionList.size() > 1) exceptionList.remove(exceptionList.size() - 1);
+
+        List<Config.ApprovalPolicy.Level> levelList = config.getApprovalPolicy().getLevels();
+        for (Config.ApprovalPolicy.Level level : levelList) {
+            if (random.nextDouble() < changeRatio) level.setLimit(level.getLimit() + 500.0);
+        }
+        Config.ApprovalPolicy.Level level = new Config.ApprovalPolicy.Level();
+        level.setRole(Config.ApprovalPolicy.Level.Role.CFO);
+        level.setLimit(10000.0 * (levelList.size() + 1));
+        levelList.add(level);
+
+        config.getCreditPolicy().setMaxCreditLimit(10000.0);
+        config.getCreditPolicy().setMinCreditScore(null);
+        config.getRiskScoring().getWeights().setIncomeToDebtRatio(0.5);
+        return config;
+    }
+
+    /**
+     * Partial update as sent by PATCH request, replacing levels array and merging nested objects.
+     */
+    public JsonNode patch() {
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.putObject("creditPolicy").put("maxCreditLimit", 75000);
+        ObjectNode approvalPolicy = patch.putObject("approvalPolicy");
+        approvalPolicy.put("autoApproveThreshold", 2500);
+        ArrayNode levelArray = approvalPolicy.putArray("levels");
+        for (int i = 0; i < levels; i++) {
+            levelArray.addObject().put("role", "TEAM_LEAD").put("limit", 12000.0 * (i + 1));
+        }
+        patch.putObject("riskScoring").putObject("thresholds").put("low", 720);
+        return patch;
+    }
+}
@@ -19,7 +19,8 @@ public class ApiNestedStack extends NestedStack {
     private final RestApi api;
     private final IApiKey apiKey;
 
-    public ApiNestedStack(@NotNull Construct scope, @NotNull String id, @NotNull ITable configTable) {
+    public ApiNestedStack(@NotNull Construct scope, @NotNull String id, @NotNull ITable configTable,
+                          @NotNull Map<String, String> configTableEnvironment) {
         super(scope, id);
 
         // Lambda functions with versions and aliases
@@ -27,7 +28,7 @@ public class ApiNestedStack extends NestedStack {
                 .handler("com.github.moravcik.configtracker.lib.lambda.ConfigApiHandler::handleRequest")
                 .environment(mergeEnvironment(
                         BASE_LAMBDA_ENVIRONMENT,
-                        Map.of("CONFIG_TABLE_NAME", configTable.getTableName())))
+                        mergeEnvironment(configTableEnvironment, Map.of("CONFIG_CHANGES_ON_WRITE", "true"))))
                 .build();
 
         configTable.grantReadWriteData(configApiHandler);
@@ -36,7 +37,7 @@ public class ApiNestedStack extends NestedStack {
                 .handler("com.github.moravcik.configtracker.lib.lambda.ConfigChangeApiHandler::handleRequest")
                 .environment(mergeEnvironment(
                         BASE_LAMBDA_ENVIRONMENT,
-                        Map.of("CONFIG_TABLE_NAME", configTable.getTableName())))
+                        configTableEnvironment))
                 .build();
 
         configTable.grantReadData(configChangeApiHandler);
@@ -147,8 +148,8 @@ public class ApiNestedStack extends NestedStack {
                         .build())
                 .build());
 
-        LambdaIntegration configApiIntegration = new LambdaIntegration(configApiHandler);
-        LambdaIntegration configChangeApiIntegration = new LambdaIntegration(configChangeApiHandler);
+        LambdaIntegration configApiIntegration = new LambdaIntegration(createLiveAlias(configApiHandler));
+        LambdaIntegration configChangeApiIntegration = new LambdaIntegration(createLiveAlias(configChangeApiHandler));
 
         MethodOptions apiKeyRequiredOption = MethodOptions.builder().apiKeyRequired(true).build();
         MethodOptions apiKeyWithValidationOption = MethodOptions.builder()
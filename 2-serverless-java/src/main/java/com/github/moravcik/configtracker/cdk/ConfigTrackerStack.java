@@ -17,7 +17,8 @@ public class ConfigTrackerStack extends Stack {
         super(scope, id, props);
 
         StorageNestedStack storageStack = new StorageNestedStack(this, "Storage");
-        ApiNestedStack apiStack = new ApiNestedStack(this, "Api", storageStack.getConfigTable());
+        ApiNestedStack apiStack = new ApiNestedStack(this, "Api", storageStack.getConfigTable(),
+                storageStack.getConfigTableEnvironment());
         new NotificationsNestedStack(this, "Notifications", storageStack.getConfigChangesTopic());
 
         // Outputs
@@ -14,16 +14,29 @@ public class LambdaUtils {
             "JAVA_TOOL_OPTIONS", "-Xshare:on -XX:+AlwaysPreTouch -Djava.security.egd=file:/dev/./urandom"
     );
 
+    public static final String LIVE_ALIAS = "live";
+
+    /**
+     * SnapStart applies to published versions only, so functions must be invoked through {@link #createLiveAlias}.
+     */
     public static Function.Builder createLambdaFunctionBuilder(Construct scope, String logicalId) {
         return Function.Builder.create(scope, logicalId)
                 .runtime(Runtime.JAVA_21)
                 .architecture(Architecture.ARM_64)
                 .memorySize(2048)
                 .timeout(Duration.seconds(30))
+                .snapStart(SnapStartConf.ON_PUBLISHED_VERSIONS)
                 .logRetention(software.amazon.awscdk.services.logs.RetentionDays.ONE_WEEK)
                 .code(Code.fromAsset("target/lambda.jar"));
     }
 
+    /**
+     * Alias of the current version, a new version (and SnapStart snapshot) is published on every code or configuration change.
+     */
+    public static Alias createLiveAlias(Function function) {
+        return function.addAlias(LIVE_ALIAS);
+    }
+
     public static Map<String, String> mergeEnvironment(Map<String, String> base, Map<String, String> additional) {
         Map<String, String> merged = new HashMap<>(base);
         merged.putAll(additional);
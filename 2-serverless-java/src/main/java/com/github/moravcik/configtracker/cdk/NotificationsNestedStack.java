@@ -32,6 +32,8 @@ public class NotificationsNestedStack extends NestedStack {
                 .environment(BASE_LAMBDA_ENVIRONMENT)
                 .build();
 
-        configNotificationHandler.addEventSource(SqsEventSource.Builder.create(notificationsQueue).build());
+        createLiveAlias(configNotificationHandler).addEventSource(SqsEventSource.Builder.create(notificationsQueue)
+                .reportBatchItemFailures(true)
+                .build());
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.github.moravcik.configtracker.cdk;
 
+import com.github.moravcik.configtracker.lib.utils.ConfigVersionUtils;
 import org.jetbrains.annotations.NotNull;
+import software.amazon.awscdk.Duration;
 import software.amazon.awscdk.NestedStack;
 import software.amazon.awscdk.RemovalPolicy;
 import software.amazon.awscdk.services.dynamodb.*;
@@ -19,6 +21,7 @@ public class StorageNestedStack extends NestedStack {
 
     private final Table configTable;
     private final Topic configChangesTopic;
+    private final Map<String, String> configTableEnvironment;
 
     public StorageNestedStack(@NotNull Construct scope, @NotNull String id) {
         super(scope, id);
@@ -38,6 +41,58 @@ public class StorageNestedStack extends NestedStack {
                 .stream(StreamViewType.NEW_IMAGE)
                 .build();
 
+        // Sparse index of CONFIG_LATEST items only, for listing latest versions of all configs
+        // All pointers share one partition key (listPk=CONFIG), a single hot partition sized for config save rates
+        configTable.addGlobalSecondaryIndex(GlobalSecondaryIndexProps.builder()
+                .indexName("ConfigListIndex")
+                .partitionKey(Attribute.builder()
+                        .name("listPk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .sortKey(Attribute.builder()
+                        .name("listSk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .projectionType(ProjectionType.ALL)
+                .build());
+
+        // Sparse index of CONFIG_PATH_CHANGE items by path and timestamp, for path prefix queries as key conditions.
+        // All attributes are projected, so matched path changes can be served from the index alone.
+        configTable.addGlobalSecondaryIndex(GlobalSecondaryIndexProps.builder()
+                .indexName("ConfigPathIndex")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .sortKey(Attribute.builder()
+                        .name("pathSk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .projectionType(ProjectionType.ALL)
+                .build());
+
+        // Sparse index of CONFIG_PATH_CHANGE items by timestamp, for time windows as key conditions
+        configTable.addGlobalSecondaryIndex(GlobalSecondaryIndexProps.builder()
+                .indexName("ConfigTimeIndex")
+                .partitionKey(Attribute.builder()
+                        .name("pk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .sortKey(Attribute.builder()
+                        .name("timeSk")
+                        .type(AttributeType.STRING)
+                        .build())
+                .projectionType(ProjectionType.ALL)
+                .build());
+
+        // Encoding of stored config bodies (JSON, SMILE, SMILE_DEFLATE), items of any encoding stay readable.
+        // Full config is stored every N versions, versions in between store only delta from the previous version.
+        this.configTableEnvironment = Map.of(
+                "CONFIG_TABLE_NAME", configTable.getTableName(),
+                "CONFIG_ENCODING", getContextString("configEncoding", "SMILE_DEFLATE"),
+                "CONFIG_SNAPSHOT_INTERVAL", getContextString("configSnapshotInterval",
+                        String.valueOf(ConfigVersionUtils.DEFAULT_SNAPSHOT_INTERVAL)));
+
         this.configChangesTopic = Topic.Builder.create(this, "ConfigChangesTopic")
                 .topicName(resourcePrefix + "-config-changes")
                 .build();
@@ -46,25 +101,42 @@ public class StorageNestedStack extends NestedStack {
                 .handler("com.github.moravcik.configtracker.lib.lambda.ConfigTableStreamHandler::handleRequest")
                 .environment(mergeEnvironment(
                         BASE_LAMBDA_ENVIRONMENT,
-                        Map.of("CONFIG_TABLE_NAME", configTable.getTableName(),
-                                "CONFIG_CHANGES_TOPIC_ARN", configChangesTopic.getTopicArn())))
+                        mergeEnvironment(configTableEnvironment,
+                                Map.of("CONFIG_CHANGES_TOPIC_ARN", configChangesTopic.getTopicArn()))))
                 .build();
 
         configTable.grantReadWriteData(configTableStreamHandler);
         configTable.grantStreamRead(configTableStreamHandler);
         configChangesTopic.grantPublish(configTableStreamHandler);
 
-        configTableStreamHandler.addEventSource(DynamoEventSource.Builder.create(configTable)
+        // Records of different configs are processed in parallel, so one invocation can take a whole burst of changes
+        createLiveAlias(configTableStreamHandler).addEventSource(DynamoEventSource.Builder.create(configTable)
                 .startingPosition(StartingPosition.LATEST)
-                .batchSize(5)
+                .batchSize(getContextNumber("streamBatchSize", 100))
+                .maxBatchingWindow(Duration.seconds(getContextNumber("streamMaxBatchingWindowSeconds", 1)))
                 .retryAttempts(2)
+                .reportBatchItemFailures(true)
                 .build());
     }
 
+    private int getContextNumber(String key, int defaultValue) {
+        Object value = getNode().tryGetContext(key);
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    private String getContextString(String key, String defaultValue) {
+        Object value = getNode().tryGetContext(key);
+        return value != null ? value.toString() : defaultValue;
+    }
+
     public Table getConfigTable() {
         return configTable;
     }
 
+    public Map<String, String> getConfigTableEnvironment() {
+        return configTableEnvironment;
+    }
+
     public Topic getConfigChangesTopic() {
         return configChangesTopic;
     }
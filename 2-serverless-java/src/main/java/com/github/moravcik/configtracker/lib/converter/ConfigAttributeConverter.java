@@ -1,16 +1,40 @@
 package com.github.moravcik.configtracker.lib.converter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.github.moravcik.configtracker.lib.types.Config;
+import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
 import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
 import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes Config in the given encoding, reads any encoding: S attribute is JSON, B attribute starts with
+ * the format tag of {@link ConfigEncoding}.
+ */
 public class ConfigAttributeConverter implements AttributeConverter<Config> {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper smileMapper = new SmileMapper();
+
+    private final ConfigEncoding encoding;
+
+    public ConfigAttributeConverter() {
+        this(ConfigEncoding.JSON);
+    }
+
+    public ConfigAttributeConverter(ConfigEncoding encoding) {
+        this.encoding = encoding;
+    }
 
     @Override
     public AttributeValue transformFrom(Config input) {
@@ -18,8 +42,20 @@ public class ConfigAttributeConverter implements AttributeConverter<Config> {
             return AttributeValue.builder().nul(true).build();
         }
         try {
-            return AttributeValue.builder().s(objectMapper.writeValueAsString(input)).build();
-        } catch (JsonProcessingException e) {
+            if (encoding == ConfigEncoding.JSON) {
+                return AttributeValue.builder().s(objectMapper.writeValueAsString(input)).build();
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            bytes.write(encoding.getTag());
+            if (encoding == ConfigEncoding.SMILE_DEFLATE) {
+                try (DeflaterOutputStream deflater = new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED))) {
+                    smileMapper.writeValue(deflater, input);
+                }
+            } else {
+                smileMapper.writeValue(bytes, input);
+            }
+            return AttributeValue.builder().b(SdkBytes.fromByteArrayUnsafe(bytes.toByteArray())).build();
+        } catch (IOException e) {
             throw new RuntimeException("Failed to serialize Config", e);
         }
     }
@@ -30,8 +66,17 @@ public class ConfigAttributeConverter implements AttributeConverter<Config> {
             return null;
         }
         try {
-            return objectMapper.readValue(input.s(), Config.class);
-        } catch (JsonProcessingException e) {
+            if (input.s() != null) {
+                return objectMapper.readValue(input.s(), Config.class);
+            }
+            byte[] bytes = input.b().asByteArrayUnsafe();
+            if (ConfigEncoding.fromTag(bytes[0]) == ConfigEncoding.SMILE_DEFLATE) {
+                try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+                    return smileMapper.readValue(inflater, Config.class);
+                }
+            }
+            return smileMapper.readValue(bytes, 1, bytes.length - 1, Config.class);
+        } catch (IOException e) {
             throw new RuntimeException("Failed to deserialize Config", e);
         }
     }
@@ -43,6 +88,6 @@ public class ConfigAttributeConverter implements AttributeConverter<Config> {
 
     @Override
     public AttributeValueType attributeValueType() {
-        return AttributeValueType.S;
+        return encoding == ConfigEncoding.JSON ? AttributeValueType.S : AttributeValueType.B;
     }
-}
\ No newline at end of file
+}
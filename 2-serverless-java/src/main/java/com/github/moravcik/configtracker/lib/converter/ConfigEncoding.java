@@ -0,0 +1,39 @@
+package com.github.moravcik.configtracker.lib.converter;
+
+/**
+ * Storage encoding of Config bodies. JSON is stored as S attribute, the binary encodings as B attribute
+ * prefixed by a one byte format tag, so the reader can decode items written with any encoding.
+ */
+public enum ConfigEncoding {
+
+    JSON((byte) 0),
+    SMILE((byte) 1),
+    SMILE_DEFLATE((byte) 2);
+
+    public static final String ENV_VARIABLE = "CONFIG_ENCODING";
+
+    private final byte tag;
+
+    ConfigEncoding(byte tag) {
+        this.tag = tag;
+    }
+
+    public byte getTag() {
+        return tag;
+    }
+
+    public static ConfigEncoding fromTag(byte tag) {
+        for (ConfigEncoding encoding : values()) {
+            if (encoding != JSON && encoding.tag == tag) return encoding;
+        }
+        throw new IllegalArgumentException("Unknown config encoding tag: " + tag);
+    }
+
+    /**
+     * Encoding of the config table, JSON when not configured.
+     */
+    public static ConfigEncoding fromEnv() {
+        String value = System.getenv(ENV_VARIABLE);
+        return value == null || value.isBlank() ? JSON : valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.moravcik.configtracker.lib.converter;
+
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Enum stored by its name, as the bean mapping does.
+ */
+public class EnumConverter<E extends Enum<E>> implements AttributeConverter<E> {
+
+    private final Class<E> enumClass;
+
+    public EnumConverter(Class<E> enumClass) {
+        this.enumClass = enumClass;
+    }
+
+    @Override
+    public AttributeValue transformFrom(E input) {
+        return AttributeValue.builder().s(input.name()).build();
+    }
+
+    @Override
+    public E transformTo(AttributeValue input) {
+        return Enum.valueOf(enumClass, input.s());
+    }
+
+    @Override
+    public EnhancedType<E> type() {
+        return EnhancedType.of(enumClass);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.S;
+    }
+}
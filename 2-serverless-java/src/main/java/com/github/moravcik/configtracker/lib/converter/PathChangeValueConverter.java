@@ -0,0 +1,75 @@
+package com.github.moravcik.configtracker.lib.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Old or new value of a path change: primitives are stored as strings, objects as maps.
+ */
+public class PathChangeValueConverter implements AttributeConverter<Object> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public AttributeValue transformFrom(Object input) {
+        return toAttributeValue(input);
+    }
+
+    @Override
+    public Object transformTo(AttributeValue input) {
+        return toObject(input);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static AttributeValue toAttributeValue(Object value) {
+        if (value == null) {
+            return AttributeValue.builder().nul(true).build();
+        }
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return AttributeValue.builder().s(value.toString()).build();
+        }
+        try {
+            Map<String, Object> objectMap = objectMapper.convertValue(value, Map.class);
+            Map<String, AttributeValue> attributeMap = objectMap.entrySet().stream()
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            entry -> toAttributeValue(entry.getValue())
+                    ));
+            return AttributeValue.builder().m(attributeMap).build();
+        } catch (Exception e) {
+            return AttributeValue.builder().s(value.toString()).build();
+        }
+    }
+
+    public static Object toObject(AttributeValue attributeValue) {
+        if (attributeValue == null || (attributeValue.nul() != null && attributeValue.nul())) {
+            return null;
+        }
+        if (attributeValue.s() != null) {
+            return attributeValue.s();
+        }
+        if (attributeValue.hasM()) {
+            Map<String, Object> objectMap = new LinkedHashMap<>(); // values may be null, not supported by Collectors.toMap
+            attributeValue.m().forEach((key, value) -> objectMap.put(key, toObject(value)));
+            return objectMap;
+        }
+        return attributeValue.toString();
+    }
+
+    @Override
+    public EnhancedType<Object> type() {
+        return EnhancedType.of(Object.class);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.S;
+    }
+}
@@ -6,40 +6,115 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
 import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
 import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.repository.ConfigRepositories;
+import com.github.moravcik.configtracker.lib.repository.ConfigRepository;
+import com.github.moravcik.configtracker.lib.repository.InvalidCursorException;
 import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
 import com.github.moravcik.configtracker.lib.utils.ApiUtils;
-import com.github.moravcik.configtracker.lib.utils.DynamoUtils;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import com.github.moravcik.configtracker.lib.utils.LruCache;
+import com.github.moravcik.configtracker.lib.utils.MetricsUtils;
+import com.github.moravcik.configtracker.lib.utils.NearCache;
+import com.github.moravcik.configtracker.lib.utils.ObjectPath;
+import com.github.moravcik.configtracker.lib.utils.ObjectUtils;
+import com.github.moravcik.configtracker.lib.utils.PrimingUtils;
+import org.crac.Core;
+import org.crac.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.time.format.DateTimeParseException;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-public class ConfigApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+public class ConfigApiHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>, Resource {
 
-    private static final DynamoDbTable<ConfigItem> table = DynamoUtils.getConfigTable();
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final Logger logger = LoggerFactory.getLogger(ConfigApiHandler.class);
+    private static final int DEFAULT_LIST_LIMIT = 100;
+    private static final int MAX_LIST_LIMIT = 1000;
+
+    // Stored versions never change, they are cached by their own timestamp resolved by key-only read
+    private final LruCache<String, ConfigItem> versionCache = new LruCache<>(
+            System.getenv("CONFIG_VERSION_CACHE_SIZE") != null ? Integer.parseInt(System.getenv("CONFIG_VERSION_CACHE_SIZE")) : 1000);
+
+    // Latest versions of hot configs, served without a read within TTL, then revalidated by the pointer timestamp
+    private final NearCache<String, ConfigItem> latestCache = new NearCache<>(
+            System.getenv("CONFIG_LATEST_CACHE_SIZE") != null ? Integer.parseInt(System.getenv("CONFIG_LATEST_CACHE_SIZE")) : 1000,
+            Duration.ofSeconds(System.getenv("CONFIG_LATEST_CACHE_TTL_SECONDS") != null
+                    ? Integer.parseInt(System.getenv("CONFIG_LATEST_CACHE_TTL_SECONDS")) : 5));
+
+    // Latest cache stats are published as metrics once per interval, not logged with every request
+    private static final Duration CACHE_METRICS_INTERVAL = Duration.ofMinutes(1);
+    private NearCache.Stats publishedCacheStats = new NearCache.Stats(0, 0, 0, 0, 0);
+    private long cacheMetricsPublishedAt = System.nanoTime();
+
+    private final ConfigRepository repository;
+    // Without change stream all changes are calculated on write
+    private final boolean changesOnWrite;
+
+    // Fixed millis keep timestamps (sort keys) in time order as strings, ISO_INSTANT omits zero fraction
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
 
     private static String formatTimestamp(Instant instant) {
-        return DateTimeFormatter.ISO_INSTANT.format(instant.truncatedTo(java.time.temporal.ChronoUnit.MILLIS));
+        return TIMESTAMP_FORMAT.format(instant);
+    }
+
+    public ConfigApiHandler() {
+        this(ConfigRepositories.get());
+    }
+
+    public ConfigApiHandler(ConfigRepository repository) {
+        this.repository = repository;
+        this.changesOnWrite = Boolean.parseBoolean(System.getenv("CONFIG_CHANGES_ON_WRITE")) || !repository.hasChangeStream();
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        PrimingUtils.primeConfigProcessing();
+        // Read-only requests through the whole handler, the priming config does not exist
+        handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/config/" + PrimingUtils.PRIMING_CONFIG_ID)
+                .withPathParameters(Map.of("configId", PrimingUtils.PRIMING_CONFIG_ID))
+                .withHeaders(Map.of("If-None-Match", ApiUtils.createETag(PrimingUtils.PRIMING_CONFIG_ID)))
+                .withQueryStringParameters(Map.of("paths", "creditPolicy.currency")), null);
+        handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/config/" + PrimingUtils.PRIMING_CONFIG_ID)
+                .withPathParameters(Map.of("configId", PrimingUtils.PRIMING_CONFIG_ID))
+                .withQueryStringParameters(Map.of("at", "1970-01-01T00:00:00.000Z")), null);
+        handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/config")
+                .withQueryStringParameters(Map.of("limit", "1", "summary", "true")), null);
     }
 
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+    }
 
 
-    private APIGatewayProxyResponseEvent handleSave(String configJson, String existingConfigId) throws Exception {
-        String configId = existingConfigId != null ? existingConfigId : UUID.randomUUID().toString();
+
+    private APIGatewayProxyResponseEvent handleSave(String configJson, ConfigItem previous) throws Exception {
+        String configId = previous != null ? previous.getConfigId() : UUID.randomUUID().toString();
+        Long previousVersion = previous != null ? previous.getVersion() : null;
         String timestamp = formatTimestamp(Instant.now());
         ConfigItem item = new ConfigItem();
 
@@ -48,68 +123,207 @@ public class ConfigApiHandler implements RequestHandler<APIGatewayProxyRequestEv
         item.setEntityType(ConfigTableItem.EntityType.CONFIG);
         item.setConfigId(configId);
         item.setTimestamp(timestamp);
+        item.setVersion(previousVersion != null ? previousVersion + 1 : 1L);
         item.setConfig(objectMapper.readValue(configJson, Config.class));
 
-        table.putItem(item);
+        ConfigChangeItem changeItem = null;
+        List<ConfigPathChangeItem> pathChangeItems = List.of();
+        if (changesOnWrite && previous == null) {
+            item.setChangeWritten(true);
+        } else if (changesOnWrite) {
+            List<ConfigPathChange> pathChanges = ConfigChangeUtils.calculatePathChanges(previous.getConfig(), item.getConfig());
+            if (pathChanges.isEmpty()) {
+                return ApiUtils.createErrorResponse("No update - Equal with latest Config version", 400);
+            }
+            // Config change items must fit into single write with the version, otherwise left for stream handler
+            if (pathChanges.size() <= repository.maxPathChangesPerWrite()) {
+                changeItem = ConfigChangeUtils.createConfigChangeItem(configId, timestamp, pathChanges);
+                pathChangeItems = ConfigChangeUtils.createPathChangeItems(configId, timestamp, pathChanges);
+                item.setChangeWritten(true);
+            } else {
+                logger.info("Config {} has {} changes, calculated by stream handler", configId, pathChanges.size());
+            }
+        }
+
+        try {
+            repository.putConfigVersion(item, previous, changeItem, pathChangeItems);
+        } catch (ConcurrentModificationException e) {
+            return ApiUtils.createErrorResponse("Config was modified concurrently", 409);
+        }
+        latestCache.put(configId, item, timestamp);
 
         Map<String, Object> response = Map.of(
                 "configId", configId,
                 "timestamp", timestamp,
+                "version", item.getVersion(),
                 "config", objectMapper.readValue(configJson, Object.class)
         );
         return ApiUtils.createSuccessResponse(response);
     }
 
-    private APIGatewayProxyResponseEvent handleList() throws Exception {
-        List<ConfigItem> allItems = table.scan(ScanEnhancedRequest.builder()
-                .filterExpression(software.amazon.awssdk.enhanced.dynamodb.Expression.builder()
-                        .expression("entityType = :et")
-                        .putExpressionValue(":et", AttributeValue.builder().s("CONFIG").build())
-                        .build())
-                .build())
-                .items()
-                .stream()
-                .toList();
-
-        // Get latest config per configId
-        Map<String, ConfigItem> latestConfigs = new HashMap<String, ConfigItem>();
-        for (ConfigItem item : allItems) {
-            String configId = item.getConfigId();
-            String timestamp = item.getTimestamp();
-
-            if (!latestConfigs.containsKey(configId) ||
-                    timestamp.compareTo((String) latestConfigs.get(configId).getTimestamp()) > 0) {
-                latestConfigs.put(configId, item);
-            }
+    private APIGatewayProxyResponseEvent handleList(APIGatewayProxyRequestEvent event) throws Exception {
+        int limit;
+        try {
+            String limitParam = getQueryParameter(event, "limit");
+            limit = limitParam != null ? Integer.parseInt(limitParam) : DEFAULT_LIST_LIMIT;
+        } catch (NumberFormatException e) {
+            return ApiUtils.createErrorResponse("Invalid limit or cursor", 400);
+        }
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            return ApiUtils.createErrorResponse("Limit must be between 1 and " + MAX_LIST_LIMIT, 400);
+        }
+        boolean summary = Boolean.parseBoolean(getQueryParameter(event, "summary"));
+
+        ConfigRepository.ResultPage<ConfigItem> page;
+        try {
+            page = repository.listLatestConfigs(limit, getQueryParameter(event, "cursor"), summary);
+        } catch (InvalidCursorException e) {
+            return ApiUtils.createErrorResponse("Invalid limit or cursor", 400);
         }
 
-        List<Map<String, Object>> result = latestConfigs.values().stream()
-                .map(this::stripDbKeys)
+        List<Map<String, Object>> result = page.items().stream()
+                .map(item -> summary ? stripConfig(item) : stripDbKeys(item))
                 .collect(Collectors.toList());
 
-        return ApiUtils.createSuccessResponse(result);
+        return ApiUtils.createPageResponse(result, page.nextCursor());
     }
 
-    private APIGatewayProxyResponseEvent handleGet(String configId) throws Exception {
-        List<ConfigItem> items = DynamoUtils.getLatestConfigEntity(configId);
-        logger.info("Latest config by configId ({}): {}", configId, items.size());
+    private APIGatewayProxyResponseEvent handleGet(String configId, String paths, String at, String ifNoneMatch) throws Exception {
+        List<ObjectPath> objectPaths = null;
+        if (paths != null) {
+            try {
+                objectPaths = ObjectPath.compileAll(paths);
+            } catch (IllegalArgumentException e) {
+                return ApiUtils.createErrorResponse(e.getMessage(), 400);
+            }
+        }
+
+        // Unchanged latest version is confirmed by key-only read of its timestamp, without reading the config
+        String latestTimestamp = null;
+        if (at == null && ifNoneMatch != null) {
+            latestTimestamp = repository.getLatestConfigTimestamp(configId);
+            String etag = latestTimestamp != null ? createConfigETag(configId, latestTimestamp, paths) : null;
+            if (etag != null && ApiUtils.matchesETag(ifNoneMatch, etag)) {
+                logger.info("Latest config by configId ({}): {} not modified", configId, latestTimestamp);
+                return ApiUtils.createNotModifiedResponse(etag);
+            }
+        }
+
+        ConfigItem item;
+        if (at != null) {
+            Instant atInstant;
+            try {
+                atInstant = Instant.parse(at);
+            } catch (DateTimeParseException e) {
+                return ApiUtils.createErrorResponse("Invalid timestamp: " + at, 400);
+            }
+            item = getConfigVersionAt(configId, atInstant);
+            logger.info("Config by configId ({}) at {}: {}", configId, at, item != null ? item.getTimestamp() : null);
+        } else {
+            item = getLatestConfig(configId, latestTimestamp);
+            logger.info("Latest config by configId ({}): {}", configId, item != null ? item.getTimestamp() : null);
+            publishCacheMetrics();
+        }
 
-        if (items.isEmpty()) {
+        if (item == null) {
             return ApiUtils.createErrorResponse("Config not found", 404);
         }
 
-        Map<String, Object> result = stripDbKeys(items.get(0));
-        return ApiUtils.createSuccessResponse(result);
+        String etag = createConfigETag(configId, item.getTimestamp(), paths);
+        if (ApiUtils.matchesETag(ifNoneMatch, etag)) {
+            return ApiUtils.createNotModifiedResponse(etag);
+        }
+
+        Map<String, Object> result = objectPaths != null
+                ? selectPaths(item, objectPaths)
+                : stripDbKeys(item);
+        return ApiUtils.createSuccessResponse(result, etag);
+    }
+
+    // Version timestamp identifies the config, selected paths the representation
+    private static String createConfigETag(String configId, String timestamp, String paths) {
+        return ApiUtils.createETag(configId, timestamp, paths != null ? paths : "");
+    }
+
+    private ConfigItem getConfigVersionAt(String configId, Instant at) {
+        String versionTimestamp = repository.getConfigVersionTimestampAt(configId, formatTimestamp(at));
+        if (versionTimestamp == null) return null;
+
+        // Any "at" resolving to the same version shares its entry
+        String cacheKey = configId + "@" + versionTimestamp;
+        ConfigItem cached = versionCache.get(cacheKey);
+        if (cached != null) return cached;
+
+        ConfigItem item = repository.getConfigVersionAt(configId, versionTimestamp);
+        if (item != null) {
+            versionCache.put(cacheKey, item);
+        }
+        return item;
+    }
+
+    /**
+     * Latest config, from the near cache if possible. With latest timestamp already read by the conditional request
+     * the cached item is served only if it is that version and the read item is not older than it, so the ETag
+     * is never compared to a version preceding the pointer.
+     */
+    private ConfigItem getLatestConfig(String configId, String latestTimestamp) {
+        ConfigItem cached = latestTimestamp != null
+                ? latestCache.getCurrent(configId, latestTimestamp)
+                : latestCache.get(configId, repository::getLatestConfigTimestamp);
+        if (cached != null) return cached;
+
+        ConfigItem item = repository.getLatestConfig(configId, false);
+        if (item != null && latestTimestamp != null && item.getTimestamp().compareTo(latestTimestamp) < 0) {
+            item = repository.getLatestConfig(configId, true);
+        }
+        if (item != null) {
+            latestCache.put(configId, item, item.getTimestamp());
+        }
+        return item;
+    }
+
+    /**
+     * Latest cache counts and hit ratio of the last interval as CloudWatch metrics, counts of all instances add up.
+     */
+    private synchronized void publishCacheMetrics() {
+        long now = System.nanoTime();
+        if (now - cacheMetricsPublishedAt < CACHE_METRICS_INTERVAL.toNanos()) return;
+        NearCache.Stats stats = latestCache.stats();
+        NearCache.Stats interval = stats.since(publishedCacheStats);
+        cacheMetricsPublishedAt = now;
+        publishedCacheStats = stats;
+
+        // Embedded metric format is read from stdout, the logger adds a prefix to its lines
+        System.out.println(MetricsUtils.createMetricLog("ConfigTracker", Map.of("Cache", "LatestConfig"), List.of(
+                new MetricsUtils.Metric("CacheHits", "Count", interval.hits()),
+                new MetricsUtils.Metric("CacheRevalidations", "Count", interval.revalidations()),
+                new MetricsUtils.Metric("CacheMisses", "Count", interval.misses()),
+                new MetricsUtils.Metric("CacheEvictions", "Count", interval.evictions()),
+                new MetricsUtils.Metric("CacheHitRatio", "None", interval.hitRatio()),
+                new MetricsUtils.Metric("CacheSize", "Count", interval.size())), System.currentTimeMillis()));
+    }
+
+    private Map<String, Object> selectPaths(ConfigItem item, List<ObjectPath> objectPaths) {
+        JsonNode configNode = objectMapper.valueToTree(item.getConfig());
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ObjectPath objectPath : objectPaths) {
+            values.put(objectPath.getPath(), objectPath.resolve(configNode)); // null if path does not exist
+        }
+        return Map.of(
+                "configId", item.getConfigId(),
+                "timestamp", item.getTimestamp(),
+                "values", values
+        );
     }
 
     private APIGatewayProxyResponseEvent handleUpdate(APIGatewayProxyRequestEvent event, String configId, boolean isPatch) throws Exception {
-        List<ConfigItem> latestConfigs = DynamoUtils.getLatestConfigEntity(configId);
+        ConfigItem latest = repository.getLatestConfig(configId, true);
 
-        if (latestConfigs.isEmpty()) {
+        if (latest == null) {
             return ApiUtils.createErrorResponse("Config not found", 404);
         }
 
-        Config existingConfig = latestConfigs.get(0).getConfig();
+        Config existingConfig = latest.getConfig();
         String existingConfigJson = objectMapper.writeValueAsString(existingConfig);
         String updateBodyJson = event.getBody();
 
@@ -118,48 +332,37 @@ public class ConfigApiHandler implements RequestHandler<APIGatewayProxyRequestEv
         if (existingConfigJson.equals(updatedConfigJson)) {
             return ApiUtils.createErrorResponse("No update - Equal with latest Config version", 400);
         }
-        return handleSave(updatedConfigJson, configId);
+        return handleSave(updatedConfigJson, latest);
     }
 
     private String mergeConfigs(Config existingConfig, String updateJson) throws Exception {
         JsonNode existingNode = objectMapper.valueToTree(existingConfig);
         JsonNode updateNode = objectMapper.readTree(updateJson);
-        JsonNode mergedNode = deepMerge(existingNode, updateNode);
+        JsonNode mergedNode = ObjectUtils.deepMerge(existingNode, updateNode);
         return objectMapper.writeValueAsString(mergedNode);
     }
 
-    private JsonNode deepMerge(JsonNode existing, JsonNode update) {
-        if (update.isNull()) return existing;
-        if (existing.isNull() || !existing.isObject() || !update.isObject()) return update;
-        
-        ObjectNode merged = existing.deepCopy();
-        update.fields().forEachRemaining(entry -> {
-            String key = entry.getKey();
-            JsonNode value = entry.getValue();
-            
-            if (value.isArray() || !merged.has(key) || !merged.get(key).isObject()) {
-                merged.set(key, value);
-            } else {
-                merged.set(key, deepMerge(merged.get(key), value));
-            }
-        });
-        return merged;
+    private Map<String, Object> stripConfig(ConfigItem item) {
+        Map<String, Object> result = stripDbKeys(item);
+        result.remove("config");
+        return result;
     }
 
     private Map<String, Object> stripDbKeys(ConfigItem item) {
-        try {
-            return Map.of(
-                    "configId", item.getConfigId(),
-                    "timestamp", item.getTimestamp(),
-                    "config", item.getConfig()
-            );
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configId", item.getConfigId());
+        result.put("timestamp", item.getTimestamp());
+        if (item.getVersion() != null) result.put("version", item.getVersion()); // not set for configs saved before versioning
+        result.put("config", item.getConfig());
+        return result;
     }
 
 
 
+    private static String getQueryParameter(APIGatewayProxyRequestEvent event, String name) {
+        return event.getQueryStringParameters() != null ? event.getQueryStringParameters().get(name) : null;
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
         try {
@@ -173,8 +376,9 @@ public class ConfigApiHandler implements RequestHandler<APIGatewayProxyRequestEv
                     if (configId == null) return handleSave(event.getBody(), null);
                     break;
                 case "GET":
-                    if (configId == null) return handleList();
-                    else return handleGet(configId);
+                    if (configId == null) return handleList(event);
+                    else return handleGet(configId, getQueryParameter(event, "paths"), getQueryParameter(event, "at"),
+                            ApiUtils.getHeader(event, "If-None-Match"));
                 case "PUT":
                     if (configId == null) return ApiUtils.createErrorResponse("Config ID not specified", 400);
                     else return handleUpdate(event, configId, false);
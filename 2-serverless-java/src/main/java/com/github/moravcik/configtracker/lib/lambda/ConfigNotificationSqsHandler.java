@@ -2,27 +2,55 @@ package com.github.moravcik.configtracker.lib.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.utils.PrimingUtils;
+import org.crac.Core;
+import org.crac.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ConfigNotificationSqsHandler implements RequestHandler<SQSEvent, Void> {
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConfigNotificationSqsHandler implements RequestHandler<SQSEvent, SQSBatchResponse>, Resource {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigNotificationSqsHandler.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    public ConfigNotificationSqsHandler() {
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+        message.setMessageId("priming");
+        message.setBody("{\"configId\":\"" + PrimingUtils.PRIMING_CONFIG_ID + "\",\"pathChanges\":[]}");
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message));
+        handleRequest(event, null);
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+    }
+
     @Override
-    public Void handleRequest(SQSEvent event, Context context) {
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        // Only failed messages are returned to the queue
+        List<SQSBatchResponse.BatchItemFailure> batchItemFailures = new ArrayList<>();
         event.getRecords().forEach(record -> {
             try {
                 Object configChangeNotification = objectMapper.readValue(record.getBody(), Object.class);
                 logger.info("Config change notification: {}", configChangeNotification);
                 // TODO process the config change notification, e.g., send email or trigger other workflows
             } catch (Exception e) {
-                logger.error("Error processing SQS record", e);
+                logger.error("Error processing SQS record {}", record.getMessageId(), e);
+                batchItemFailures.add(new SQSBatchResponse.BatchItemFailure(record.getMessageId()));
             }
         });
-        return null;
+        return new SQSBatchResponse(batchItemFailures);
     }
 }
\ No newline at end of file
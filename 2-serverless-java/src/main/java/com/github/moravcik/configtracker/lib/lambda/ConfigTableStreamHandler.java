@@ -3,54 +3,123 @@ package com.github.moravcik.configtracker.lib.lambda;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
 import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
 import com.github.moravcik.configtracker.lib.model.ConfigItem;
 import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
-import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
 import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.AwsClients;
+import com.github.moravcik.configtracker.lib.utils.BatchWriter;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
 import com.github.moravcik.configtracker.lib.utils.DynamoUtils;
-import com.github.moravcik.configtracker.lib.utils.ObjectUtils;
+import com.github.moravcik.configtracker.lib.utils.PrimingUtils;
+import com.github.moravcik.configtracker.lib.utils.SnsBatchPublisher;
 import org.slf4j.Logger;
+import org.crac.Core;
+import org.crac.Resource;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutRequest;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
-import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
-public class ConfigTableStreamHandler implements RequestHandler<DynamodbEvent, Void> {
+public class ConfigTableStreamHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse>, Resource {
 
     private static final Logger logger = LoggerFactory.getLogger(ConfigTableStreamHandler.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-
-    private static final SnsClient snsClient = SnsClient.builder()
-            .httpClient(software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient.builder()
-                    .connectionTimeout(java.time.Duration.ofSeconds(2))
-                    .socketTimeout(java.time.Duration.ofSeconds(5))
-                    .build())
-            .build();
     private static final String configChangesTopicArn = System.getenv("CONFIG_CHANGES_TOPIC_ARN");
+    private static final SnsBatchPublisher snsBatchPublisher = new SnsBatchPublisher(AwsClients.snsAsyncClient(), configChangesTopicArn);
+
+    public ConfigTableStreamHandler() {
+        Core.getGlobalContext().register(this);
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        PrimingUtils.primeConfigProcessing();
+        PrimingUtils.primeDynamoDb();
+        PrimingUtils.primeSns();
+        // Batch of single ignored record, exercises grouping and the virtual thread executor
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventName("MODIFY");
+        record.setDynamodb(new StreamRecord()
+                .withKeys(Map.of("pk", new AttributeValue().withS("CONFIG#" + PrimingUtils.PRIMING_CONFIG_ID)))
+                .withSequenceNumber("0"));
+        DynamodbEvent event = new DynamodbEvent();
+        event.setRecords(List.of(record));
+        handleRequest(event, null);
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+    }
 
     @Override
-    public Void handleRequest(DynamodbEvent event, Context context) {
-        event.getRecords().forEach(this::processRecord);
-        return null;
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        // Records of different configs are processed in parallel, records of one config keep the stream order
+        Map<String, List<DynamodbEvent.DynamodbStreamRecord>> recordsByConfigId = event.getRecords().stream()
+                .collect(Collectors.groupingBy(ConfigTableStreamHandler::getConfigId, LinkedHashMap::new, Collectors.toList()));
+
+        logger.info("Processing {} records of {} configs", event.getRecords().size(), recordsByConfigId.size());
+
+        // Notifications of the whole batch are collected and published together
+        Queue<PublishBatchRequestEntry> notifications = new ConcurrentLinkedQueue<>();
+        // Sequence numbers of failed records, Lambda retries the batch from the lowest one
+        Queue<String> failedSequenceNumbers = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            recordsByConfigId.values().forEach(records -> executor.submit(() -> {
+                for (DynamodbEvent.DynamodbStreamRecord record : records) {
+                    if (!processRecord(record, notifications)) {
+                        // Later records of the config are not processed out of order, they are retried after the failed one
+                        failedSequenceNumbers.add(record.getDynamodb().getSequenceNumber());
+                        break;
+                    }
+                }
+            }));
+        }
+
+        if (!notifications.isEmpty()) {
+            List<String> failedIds = snsBatchPublisher.publish(List.copyOf(notifications));
+            failedSequenceNumbers.addAll(failedIds);
+            logger.info("Published {} config change notifications, {} failed", notifications.size() - failedIds.size(), failedIds.size());
+        }
+
+        return new StreamsEventResponse(failedSequenceNumbers.stream()
+                .map(StreamsEventResponse.BatchItemFailure::new)
+                .toList());
+    }
+
+    private static String getConfigId(DynamodbEvent.DynamodbStreamRecord record) {
+        Map<String, AttributeValue> image = record.getDynamodb().getNewImage();
+        if (image != null && image.containsKey("configId")) return image.get("configId").getS();
+        // Fall back to the partition key, e.g. "CONFIG#id"
+        AttributeValue pk = record.getDynamodb().getKeys().get("pk");
+        return pk != null ? pk.getS().substring(pk.getS().indexOf('#') + 1) : "";
     }
 
-    private void processRecord(DynamodbEvent.DynamodbStreamRecord record) {
+    /**
+     * @return false if processing of the record failed and the record should be retried
+     */
+    private boolean processRecord(DynamodbEvent.DynamodbStreamRecord record, Queue<PublishBatchRequestEntry> notifications) {
         try {
             logger.info("Processing DynamoDB record: {}", record.getEventName());
 
             if (!"INSERT".equals(record.getEventName()) || record.getDynamodb().getNewImage() == null) {
-                return;
+                return true;
             }
 
             Map<String, AttributeValue> item = record.getDynamodb().getNewImage();
@@ -58,16 +127,22 @@ public class ConfigTableStreamHandler implements RequestHandler<DynamodbEvent, V
 
             switch (entityType) {
                 case "CONFIG":
+                    if (item.containsKey("changeWritten") && Boolean.TRUE.equals(item.get("changeWritten").getBOOL())) {
+                        logger.info("Config change already written with config {}", item.get("configId").getS());
+                        break;
+                    }
                     handleInsertConfig(item.get("configId").getS());
                     break;
                 case "CONFIG_CHANGE":
-                    handleInsertConfigChange(item);
+                    notifications.add(createConfigChangeNotification(record.getDynamodb().getSequenceNumber(), item));
                     break;
                 default:
                     logger.info("No handler for entityType {}", entityType);
             }
+            return true;
         } catch (Exception e) {
-            logger.error("Error processing record", e);
+            logger.error("Error processing record {}", record.getDynamodb().getSequenceNumber(), e);
+            return false;
         }
     }
 
@@ -78,110 +153,47 @@ public class ConfigTableStreamHandler implements RequestHandler<DynamodbEvent, V
         ConfigItem latest = items.get(0);
         ConfigItem secondLatest = items.get(1);
 
-        List<ObjectUtils.Difference> pathChanges = ObjectUtils.calculateDifferences(
-                secondLatest.getConfig(), latest.getConfig(), false);
-
-        logger.info("Config {} has {} changes", configId, pathChanges.size());
+        List<ConfigPathChange> configPathChanges = ConfigChangeUtils.calculatePathChanges(
+                secondLatest.getConfig(), latest.getConfig());
 
-        if (pathChanges.isEmpty()) return;
+        logger.info("Config {} has {} changes", configId, configPathChanges.size());
 
-        List<ConfigPathChange> configPathChanges = pathChanges.stream()
-                .map(diff -> new ConfigPathChange(
-                        ConfigPathChange.ConfigPathChangeType.valueOf(diff.type.name()),
-                        diff.path,
-                        diff.oldValue,
-                        diff.newValue))
-                .toList();
+        if (configPathChanges.isEmpty()) return;
 
-        // Create config change item
-        ConfigChangeItem configChangeItem = new ConfigChangeItem();
-        configChangeItem.setPk("CONFIG_CHANGE#" + configId);
-        configChangeItem.setSk(latest.getTimestamp());
-        configChangeItem.setEntityType(ConfigTableItem.EntityType.CONFIG_CHANGE);
-        configChangeItem.setConfigId(configId);
-        configChangeItem.setTimestamp(latest.getTimestamp());
-        configChangeItem.setPathChanges(configPathChanges);
-
-        // Create path change items
-        List<ConfigPathChangeItem> pathChangeItems = new ArrayList<>();
-        for (ConfigPathChange change : configPathChanges) {
-            ConfigPathChangeItem pathChangeItem = new ConfigPathChangeItem();
-            pathChangeItem.setPk("CONFIG_PATH_CHANGE#" + configId);
-            pathChangeItem.setSk(change.getType() + "#" + latest.getTimestamp() + "#" + change.getPath());
-            pathChangeItem.setEntityType(ConfigTableItem.EntityType.CONFIG_PATH_CHANGE);
-            pathChangeItem.setConfigId(configId);
-            pathChangeItem.setType(change.getType());
-            pathChangeItem.setPath(change.getPath());
-            pathChangeItem.setOldValue(change.getOldValue());
-            pathChangeItem.setNewValue(change.getNewValue());
-            pathChangeItem.setTimestamp(latest.getTimestamp());
-            pathChangeItems.add(pathChangeItem);
-        }
+        ConfigChangeItem configChangeItem = ConfigChangeUtils.createConfigChangeItem(
+                configId, latest.getTimestamp(), configPathChanges);
+        List<ConfigPathChangeItem> pathChangeItems = ConfigChangeUtils.createPathChangeItems(
+                configId, latest.getTimestamp(), configPathChanges);
 
-        // Write config change item
-        DynamoUtils.getEnhancedClient().table(System.getenv("CONFIG_TABLE_NAME"), 
-                TableSchema.fromBean(ConfigChangeItem.class))
-                .putItem(configChangeItem);
+        // Write config change item, concurrently with path change items
+        CompletableFuture<?> configChangePut = DynamoUtils.putConfigChangeAsync(configChangeItem);
 
-        // Batch write path change items using raw DynamoDB
+        // Batch write path change items using raw DynamoDB, in chunks of 25 with retry of unprocessed items
         List<WriteRequest> writeRequests = pathChangeItems.stream()
                 .map(item -> WriteRequest.builder()
                         .putRequest(PutRequest.builder()
-                                .item(Map.of(
-                                        "pk", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getPk()).build(),
-                                        "sk", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getSk()).build(),
-                                        "entityType", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getEntityType().name()).build(),
-                                        "configId", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getConfigId()).build(),
-                                        "type", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getType().name()).build(),
-                                        "path", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getPath()).build(),
-                                        "oldValue", serializeValueForDynamoDB(item.getOldValue()),
-                                        "newValue", serializeValueForDynamoDB(item.getNewValue()),
-                                        "timestamp", software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(item.getTimestamp()).build()
-                                ))
+                                .item(ConfigChangeUtils.toAttributeValues(item))
                                 .build())
                         .build())
                 .toList();
 
-        DynamoUtils.getDynamoDbClient().batchWriteItem(BatchWriteItemRequest.builder()
-                .requestItems(Map.of(System.getenv("CONFIG_TABLE_NAME"), writeRequests))
-                .build());
+        BatchWriter.Result result = DynamoUtils.getBatchWriter().write(writeRequests);
+        configChangePut.join();
 
-        logger.info("Config change and path changes written successfully");
+        logger.info("Config change and {} path changes written successfully in {} chunks ({} requests, {} WCU)",
+                result.itemCount(), result.chunkCount(), result.requestCount(), result.consumedCapacityUnits());
     }
 
-    private void handleInsertConfigChange(Map<String, AttributeValue> item) throws Exception {
+    /**
+     * Notification entry identified by the stream record sequence number, unique within the batch.
+     */
+    private PublishBatchRequestEntry createConfigChangeNotification(String sequenceNumber, Map<String, AttributeValue> item) throws Exception {
         Map<String, Object> configChangeToSend = stripDbKeys(item);
 
-        snsClient.publish(PublishRequest.builder()
-                .topicArn(configChangesTopicArn)
+        return PublishBatchRequestEntry.builder()
+                .id(sequenceNumber)
                 .message(objectMapper.writeValueAsString(configChangeToSend))
-                .build());
-
-        logger.info("TODO - Published config change to SNS");
-    }
-
-    private software.amazon.awssdk.services.dynamodb.model.AttributeValue serializeValueForDynamoDB(Object value) {
-        if (value == null) {
-            return software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().nul(true).build();
-        }
-        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
-            return software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(value.toString()).build();
-        }
-        try {
-            Map<String, Object> objectMap = objectMapper.convertValue(value, Map.class);
-            return convertMapToDynamoDBAttributeValue(objectMap);
-        } catch (Exception e) {
-            return software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().s(value.toString()).build();
-        }
-    }
-
-    private software.amazon.awssdk.services.dynamodb.model.AttributeValue convertMapToDynamoDBAttributeValue(Map<String, Object> map) {
-        Map<String, software.amazon.awssdk.services.dynamodb.model.AttributeValue> attributeMap = map.entrySet().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> serializeValueForDynamoDB(entry.getValue())
-                ));
-        return software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder().m(attributeMap).build();
+                .build();
     }
 
     private Map<String, Object> stripDbKeys(Map<String, AttributeValue> item) {
@@ -1,15 +1,32 @@
 package com.github.moravcik.configtracker.lib.model;
 
-import com.github.moravcik.configtracker.lib.converter.ConfigAttributeConverter;
 import com.github.moravcik.configtracker.lib.types.Config;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbConvertedBy;
 
-@DynamoDbBean
 public class ConfigItem extends ConfigTableItem {
+
+    public static final String CONFIG_LIST_INDEX = "ConfigListIndex";
+
     private Config config;
-    
-    @DynamoDbConvertedBy(ConfigAttributeConverter.class)
+    private String delta;
+    private Long version;
+    private Boolean changeWritten;
+    private String listPk;
+    private String listSk;
+
     public Config getConfig() { return config; }
     public void setConfig(Config config) { this.config = config; }
+    // JSON Patch from the previous version, set instead of config on versions between snapshots
+    public String getDelta() { return delta; }
+    public void setDelta(String delta) { this.delta = delta; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    // True when the stream handler does not need to calculate config change (written with the version or first version)
+    public Boolean getChangeWritten() { return changeWritten; }
+    public void setChangeWritten(Boolean changeWritten) { this.changeWritten = changeWritten; }
+
+    // Set only on CONFIG_LATEST items, so the list index is sparse and holds only latest versions
+    public String getListPk() { return listPk; }
+    public void setListPk(String listPk) { this.listPk = listPk; }
+    public String getListSk() { return listSk; }
+    public void setListSk(String listSk) { this.listSk = listSk; }
 }
\ No newline at end of file
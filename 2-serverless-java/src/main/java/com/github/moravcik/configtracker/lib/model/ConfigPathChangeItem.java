@@ -1,15 +1,19 @@
 package com.github.moravcik.configtracker.lib.model;
 
 import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 
-@DynamoDbBean
 public class ConfigPathChangeItem extends ConfigTableItem {
+
+    public static final String CONFIG_PATH_INDEX = "ConfigPathIndex";
+    public static final String CONFIG_TIME_INDEX = "ConfigTimeIndex";
+
     private ConfigPathChange.ConfigPathChangeType type;
     private String path;
     private Object oldValue;
     private Object newValue;
-    
+    private String pathSk;
+    private String timeSk;
+
     public ConfigPathChange.ConfigPathChangeType getType() { return type; }
     public void setType(ConfigPathChange.ConfigPathChangeType type) { this.type = type; }
     public String getPath() { return path; }
@@ -18,4 +22,10 @@ public class ConfigPathChangeItem extends ConfigTableItem {
     public void setOldValue(Object oldValue) { this.oldValue = oldValue; }
     public Object getNewValue() { return newValue; }
     public void setNewValue(Object newValue) { this.newValue = newValue; }
+    // Sort key of the path index, path followed by timestamp, so path prefix queries are key conditions
+    public String getPathSk() { return pathSk; }
+    public void setPathSk(String pathSk) { this.pathSk = pathSk; }
+    // Sort key of the time index, timestamp followed by type and path, so time windows are key conditions
+    public String getTimeSk() { return timeSk; }
+    public void setTimeSk(String timeSk) { this.timeSk = timeSk; }
 }
\ No newline at end of file
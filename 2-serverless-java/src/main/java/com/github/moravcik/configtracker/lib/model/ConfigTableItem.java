@@ -1,16 +1,11 @@
 package com.github.moravcik.configtracker.lib.model;
 
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
-import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
-
 import java.util.List;
 
-@DynamoDbBean
 public abstract class ConfigTableItem {
     
     public enum EntityType {
-        CONFIG, CONFIG_CHANGE, CONFIG_PATH_CHANGE
+        CONFIG, CONFIG_LATEST, CONFIG_CHANGE, CONFIG_PATH_CHANGE
     }
 
     private String pk;
@@ -19,11 +14,8 @@ public abstract class ConfigTableItem {
     private String configId;
     private String timestamp;
 
-    @DynamoDbPartitionKey
     public String getPk() { return pk; }
     public void setPk(String pk) { this.pk = pk; }
-    
-    @DynamoDbSortKey
     public String getSk() { return sk; }
     public void setSk(String sk) { this.sk = sk; }
     public EntityType getEntityType() { return entityType; }
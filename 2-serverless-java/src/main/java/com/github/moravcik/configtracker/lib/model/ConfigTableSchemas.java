@@ -0,0 +1,113 @@
+package com.github.moravcik.configtracker.lib.model;
+
+import com.github.moravcik.configtracker.lib.converter.ConfigAttributeConverter;
+import com.github.moravcik.configtracker.lib.converter.ConfigEncoding;
+import com.github.moravcik.configtracker.lib.converter.ConfigPathChangeListConverter;
+import com.github.moravcik.configtracker.lib.converter.EnumConverter;
+import com.github.moravcik.configtracker.lib.converter.PathChangeValueConverter;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.*;
+
+/**
+ * Static table schemas of all entity types, built without bean introspection. Attribute names and formats
+ * are the same as of the former bean mapping, so existing items are read unchanged. The schemas are used
+ * by the enhanced client as well as for raw item maps (itemToMap / mapToItem).
+ */
+public class ConfigTableSchemas {
+
+    private static final StaticTableSchema<ConfigTableItem> BASE = StaticTableSchema.builder(ConfigTableItem.class)
+            .addAttribute(String.class, a -> a.name("pk")
+                    .getter(ConfigTableItem::getPk)
+                    .setter(ConfigTableItem::setPk)
+                    .tags(primaryPartitionKey()))
+            .addAttribute(String.class, a -> a.name("sk")
+                    .getter(ConfigTableItem::getSk)
+                    .setter(ConfigTableItem::setSk)
+                    .tags(primarySortKey()))
+            .addAttribute(ConfigTableItem.EntityType.class, a -> a.name("entityType")
+                    .getter(ConfigTableItem::getEntityType)
+                    .setter(ConfigTableItem::setEntityType)
+                    .attributeConverter(new EnumConverter<>(ConfigTableItem.EntityType.class)))
+            .addAttribute(String.class, a -> a.name("configId")
+                    .getter(ConfigTableItem::getConfigId)
+                    .setter(ConfigTableItem::setConfigId))
+            .addAttribute(String.class, a -> a.name("timestamp")
+                    .getter(ConfigTableItem::getTimestamp)
+                    .setter(ConfigTableItem::setTimestamp))
+            .build();
+
+    /**
+     * Config schema of the table, writing the encoding configured by CONFIG_ENCODING variable.
+     */
+    public static final StaticTableSchema<ConfigItem> CONFIG = config(ConfigEncoding.fromEnv());
+
+    public static final StaticTableSchema<ConfigChangeItem> CONFIG_CHANGE = StaticTableSchema.builder(ConfigChangeItem.class)
+            .newItemSupplier(ConfigChangeItem::new)
+            .extend(BASE)
+            .addAttribute(EnhancedType.listOf(ConfigPathChange.class), a -> a.name("pathChanges")
+                    .getter(ConfigChangeItem::getPathChanges)
+                    .setter(ConfigChangeItem::setPathChanges)
+                    .attributeConverter(new ConfigPathChangeListConverter()))
+            .build();
+
+    public static final StaticTableSchema<ConfigPathChangeItem> CONFIG_PATH_CHANGE = StaticTableSchema.builder(ConfigPathChangeItem.class)
+            .newItemSupplier(ConfigPathChangeItem::new)
+            .extend(BASE)
+            .addAttribute(ConfigPathChange.ConfigPathChangeType.class, a -> a.name("type")
+                    .getter(ConfigPathChangeItem::getType)
+                    .setter(ConfigPathChangeItem::setType)
+                    .attributeConverter(new EnumConverter<>(ConfigPathChange.ConfigPathChangeType.class)))
+            .addAttribute(String.class, a -> a.name("path")
+                    .getter(ConfigPathChangeItem::getPath)
+                    .setter(ConfigPathChangeItem::setPath))
+            .addAttribute(Object.class, a -> a.name("oldValue")
+                    .getter(ConfigPathChangeItem::getOldValue)
+                    .setter(ConfigPathChangeItem::setOldValue)
+                    .attributeConverter(new PathChangeValueConverter()))
+            .addAttribute(Object.class, a -> a.name("newValue")
+                    .getter(ConfigPathChangeItem::getNewValue)
+                    .setter(ConfigPathChangeItem::setNewValue)
+                    .attributeConverter(new PathChangeValueConverter()))
+            .addAttribute(String.class, a -> a.name("pathSk")
+                    .getter(ConfigPathChangeItem::getPathSk)
+                    .setter(ConfigPathChangeItem::setPathSk))
+            .addAttribute(String.class, a -> a.name("timeSk")
+                    .getter(ConfigPathChangeItem::getTimeSk)
+                    .setter(ConfigPathChangeItem::setTimeSk))
+            .build();
+
+    /**
+     * Config schema writing config body in the given encoding, items of any encoding are readable.
+     */
+    public static StaticTableSchema<ConfigItem> config(ConfigEncoding encoding) {
+        return StaticTableSchema.builder(ConfigItem.class)
+                .newItemSupplier(ConfigItem::new)
+                .extend(BASE)
+                .addAttribute(Config.class, a -> a.name("config")
+                        .getter(ConfigItem::getConfig)
+                        .setter(ConfigItem::setConfig)
+                        .attributeConverter(new ConfigAttributeConverter(encoding)))
+                .addAttribute(String.class, a -> a.name("delta")
+                        .getter(ConfigItem::getDelta)
+                        .setter(ConfigItem::setDelta))
+                .addAttribute(Long.class, a -> a.name("version")
+                        .getter(ConfigItem::getVersion)
+                        .setter(ConfigItem::setVersion))
+                .addAttribute(Boolean.class, a -> a.name("changeWritten")
+                        .getter(ConfigItem::getChangeWritten)
+                        .setter(ConfigItem::setChangeWritten))
+                .addAttribute(String.class, a -> a.name("listPk")
+                        .getter(ConfigItem::getListPk)
+                        .setter(ConfigItem::setListPk)
+                        .tags(secondaryPartitionKey(ConfigItem.CONFIG_LIST_INDEX)))
+                .addAttribute(String.class, a -> a.name("listSk")
+                        .getter(ConfigItem::getListSk)
+                        .setter(ConfigItem::setListSk)
+                        .tags(secondarySortKey(ConfigItem.CONFIG_LIST_INDEX)))
+                .build();
+    }
+}
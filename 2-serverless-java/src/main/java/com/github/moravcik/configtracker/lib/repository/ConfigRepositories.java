@@ -0,0 +1,22 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+/**
+ * Repository shared by all handlers of one execution environment, created lazily. The backend is selected by
+ * CONFIG_REPOSITORY environment variable, {@code dynamodb} (default) or {@code memory}.
+ */
+public class ConfigRepositories {
+
+    private static class Holder {
+        static final ConfigRepository repository = create(System.getenv("CONFIG_REPOSITORY"));
+    }
+
+    public static ConfigRepository get() {
+        return Holder.repository;
+    }
+
+    public static ConfigRepository create(String backend) {
+        if (backend == null || backend.equals("dynamodb")) return new DynamoConfigRepository();
+        if (backend.equals("memory")) return new InMemoryConfigRepository();
+        throw new IllegalArgumentException("Unknown config repository: " + backend);
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+
+import java.util.List;
+
+/**
+ * Storage of config versions, config changes and path changes used by the API handlers.
+ * Implemented by DynamoDB ({@link DynamoConfigRepository}) and in-memory ({@link InMemoryConfigRepository}) backends,
+ * see {@link ConfigRepositories}.
+ * Cursors are opaque strings of the backend, malformed ones are rejected by {@link InvalidCursorException}.
+ */
+public interface ConfigRepository {
+
+    /**
+     * Items of one page, next cursor is null if there are no more items.
+     */
+    record ResultPage<T>(List<T> items, String nextCursor) {}
+
+    /**
+     * Criteria of config changes query. With type or path each config change contains only the matching path changes,
+     * unless allPathChanges is requested. Timestamps are inclusive, any criteria can be null.
+     */
+    record ChangeQuery(String configId, String type, String path, String timestampFrom, String timestampTo,
+                       int limit, String cursor, boolean ascending, boolean allPathChanges) {}
+
+    ConfigItem getLatestConfig(String configId, boolean consistentRead);
+
+    /**
+     * Timestamp of the latest config version without reading the config, null if there is none.
+     */
+    String getLatestConfigTimestamp(String configId);
+
+    /**
+     * Config version valid at the given timestamp (the newest one not after it), null if there is none.
+     * Timestamp is compared as string, it must have the stored format with millis (yyyy-MM-ddTHH:mm:ss.SSSZ).
+     */
+    ConfigItem getConfigVersionAt(String configId, String timestamp);
+
+    /**
+     * Timestamp of the config version valid at the given timestamp without reading the config, null if there is none.
+     */
+    String getConfigVersionTimestampAt(String configId, String timestamp);
+
+    /**
+     * Latest configs ordered by config ID, summary has no config bodies.
+     */
+    ResultPage<ConfigItem> listLatestConfigs(int limit, String cursor, boolean summary);
+
+    /**
+     * Writes new config version as the latest one together with (if not null) its config change and path changes.
+     * Previous must be the current latest version (null for new config), otherwise
+     * ConcurrentModificationException is thrown and nothing is written.
+     */
+    void putConfigVersion(ConfigItem item, ConfigItem previous, ConfigChangeItem changeItem, List<ConfigPathChangeItem> pathChangeItems);
+
+    /**
+     * Max number of path changes written by {@link #putConfigVersion}, larger changes are left for the stream handler.
+     */
+    int maxPathChangesPerWrite();
+
+    /**
+     * Whether config changes of versions written without them are calculated asynchronously (by the stream handler).
+     */
+    boolean hasChangeStream();
+
+    ResultPage<ConfigChangeItem> queryConfigChanges(ChangeQuery query);
+}
@@ -0,0 +1,377 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableSchemas;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.AwsClients;
+import com.github.moravcik.configtracker.lib.utils.BatchReader;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import com.github.moravcik.configtracker.lib.utils.DynamoUtils;
+import com.github.moravcik.configtracker.lib.utils.PathChangeQueryPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DynamoDB backend, config versions are read and written by {@link DynamoUtils}, config changes are queried
+ * from CONFIG_CHANGE items or by CONFIG_PATH_CHANGE items on the index picked by {@link PathChangeQueryPlanner}.
+ */
+public class DynamoConfigRepository implements ConfigRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoConfigRepository.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int MAX_QUERY_PAGES = 10;
+
+    // Path change attributes of matched-only responses plus keys of the queried index for the cursor
+    private static final String PATH_CHANGE_PROJECTION = "pk, sk, pathSk, timeSk, configId, #timestamp, #type, #path, oldValue, newValue";
+    private static final Map<String, String> PATH_CHANGE_PROJECTION_NAMES = Map.of("#timestamp", "timestamp", "#type", "type", "#path", "path");
+    // Only keys and timestamp are needed to batch get whole config changes
+    private static final String TIMESTAMP_PROJECTION = "pk, sk, pathSk, timeSk, #timestamp";
+    private static final Map<String, String> TIMESTAMP_PROJECTION_NAMES = Map.of("#timestamp", "timestamp");
+
+    // Cursor of path change pages, the last timestamp of the page instead of an index key
+    private static final String TIMESTAMP_CURSOR = "timestamp";
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final BatchReader batchReader;
+
+    /**
+     * Config changes of one page, last evaluated key is null if there are no more changes.
+     */
+    private record ChangePage(List<ConfigChangeItem> items, Map<String, AttributeValue> lastEvaluatedKey) {}
+
+    public DynamoConfigRepository() {
+        this(AwsClients.dynamoDbClient(), AwsClients.dynamoDbAsyncClient(), System.getenv("CONFIG_TABLE_NAME"));
+    }
+
+    DynamoConfigRepository(DynamoDbClient dynamoDbClient, DynamoDbAsyncClient dynamoDbAsyncClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.batchReader = new BatchReader(dynamoDbAsyncClient, tableName);
+    }
+
+    @Override
+    public ConfigItem getLatestConfig(String configId, boolean consistentRead) {
+        return DynamoUtils.getLatestConfig(configId, consistentRead);
+    }
+
+    @Override
+    public String getLatestConfigTimestamp(String configId) {
+        return DynamoUtils.getLatestConfigTimestamp(configId);
+    }
+
+    @Override
+    public ConfigItem getConfigVersionAt(String configId, String timestamp) {
+        return DynamoUtils.getConfigVersionAt(configId, timestamp);
+    }
+
+    @Override
+    public String getConfigVersionTimestampAt(String configId, String timestamp) {
+        return DynamoUtils.getConfigVersionTimestampAt(configId, timestamp);
+    }
+
+    @Override
+    public ResultPage<ConfigItem> listLatestConfigs(int limit, String cursor, boolean summary) {
+        Page<ConfigItem> page = DynamoUtils.listLatestConfigs(limit, decodeCursor(cursor), summary);
+        return new ResultPage<>(page.items(), encodeCursor(page.lastEvaluatedKey()));
+    }
+
+    @Override
+    public void putConfigVersion(ConfigItem item, ConfigItem previous,
+                                 ConfigChangeItem changeItem, List<ConfigPathChangeItem> pathChangeItems) {
+        try {
+            DynamoUtils.putConfigVersion(item, previous, changeItem, pathChangeItems);
+        } catch (TransactionCanceledException e) {
+            logger.warn("Config {} save cancelled: {}", item.getConfigId(), e.cancellationReasons());
+            ConcurrentModificationException conflict = new ConcurrentModificationException("Config was modified concurrently");
+            conflict.initCause(e);
+            throw conflict;
+        }
+    }
+
+    @Override
+    public int maxPathChangesPerWrite() {
+        // Version, latest pointer and config change items share the transaction
+        return DynamoUtils.MAX_TRANSACTION_ITEMS - 3;
+    }
+
+    @Override
+    public boolean hasChangeStream() {
+        return true;
+    }
+
+    @Override
+    public ResultPage<ConfigChangeItem> queryConfigChanges(ChangeQuery query) {
+        Map<String, AttributeValue> exclusiveStartKey = decodeCursor(query.cursor());
+        ChangePage page = query.type() != null || query.path() != null
+                ? queryByConfigPathChanges(query.configId(), query.type(), query.path(), query.timestampFrom(), query.timestampTo(),
+                        query.limit(), exclusiveStartKey, query.ascending(), query.allPathChanges())
+                : queryConfigChanges(query.configId(), query.timestampFrom(), query.timestampTo(),
+                        query.limit(), exclusiveStartKey, query.ascending());
+        return new ResultPage<>(page.items(), encodeCursor(page.lastEvaluatedKey()));
+    }
+
+    /**
+     * Encodes LastEvaluatedKey as opaque URL-safe cursor, null if there are no more items.
+     */
+    private static String encodeCursor(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) return null;
+        Map<String, String> key = new TreeMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, value.n() != null ? "N:" + value.n() : "S:" + value.s()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(key));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to encode cursor", e);
+        }
+    }
+
+    private static Map<String, AttributeValue> decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            Map<String, String> key = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<Map<String, String>>() {});
+            Map<String, AttributeValue> exclusiveStartKey = new HashMap<>();
+            key.forEach((name, value) -> exclusiveStartKey.put(name, value.startsWith("N:")
+                    ? AttributeValue.builder().n(value.substring(2)).build()
+                    : AttributeValue.builder().s(value.substring(2)).build()));
+            return exclusiveStartKey;
+        } catch (Exception e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private ChangePage queryConfigChanges(String configId, String timestampFrom, String timestampTo,
+                                          int limit, Map<String, AttributeValue> exclusiveStartKey, boolean ascending) {
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("pk = :pk" + buildTimestampCondition(timestampFrom, timestampTo))
+                .expressionAttributeValues(buildAttributeValues(configId, timestampFrom, timestampTo))
+                .exclusiveStartKey(exclusiveStartKey)
+                .scanIndexForward(ascending)
+                .limit(limit)
+                .build());
+
+        List<ConfigChangeItem> items = new ArrayList<>();
+        response.items().forEach(item -> {
+            try {
+                items.add(convertToConfigChangeItem(item));
+            } catch (Exception e) {
+                logger.error("Error converting item", e);
+            }
+        });
+        return new ChangePage(items, response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null);
+    }
+
+    /**
+     * Page of up to limit config changes with matching path changes. Every planned layout returns items in timestamp
+     * order and the page ends on a complete config change, the cursor is its timestamp. A config change is complete
+     * once the query evaluated past its timestamp (read an item or LastEvaluatedKey of a later timestamp). Reading
+     * stops after {@link #MAX_QUERY_PAGES} queries even if the page is not full, which keeps latency bounded for
+     * selective filters, the page then ends on the last complete timestamp. Until a timestamp is complete reading
+     * continues, so a page makes progress even if a config change has more path changes than a query page.
+     * <p>
+     * Config changes contain only the matched path changes, read directly from the (projected) path change items.
+     * With allPathChanges the whole config changes are batch fetched by timestamps of the matched path changes.
+     */
+    private ChangePage queryByConfigPathChanges(String configId, String type, String path,
+                                                String timestampFrom, String timestampTo,
+                                                int limit, Map<String, AttributeValue> cursor,
+                                                boolean ascending, boolean allPathChanges) {
+        String cursorTimestamp = null;
+        if (cursor != null) {
+            if (!cursor.containsKey(TIMESTAMP_CURSOR)) throw new InvalidCursorException();
+            cursorTimestamp = cursor.get(TIMESTAMP_CURSOR).s();
+        }
+        String planPath = path;
+        boolean singlePath = false;
+        if (path != null && (timestampFrom == null || timestampTo == null)) {
+            List<String> pathSpan = queryPathSpan(configId, path);
+            if (pathSpan.isEmpty()) return new ChangePage(List.of(), null);
+            singlePath = pathSpan.get(0).equals(pathSpan.get(1));
+            if (singlePath) planPath = pathSpan.get(0);
+        }
+        PathChangeQueryPlanner.Plan plan = PathChangeQueryPlanner.plan(configId, type, planPath, singlePath,
+                timestampFrom, timestampTo, cursorTimestamp, ascending);
+        logger.info("Path changes query plan: index {}, key condition {}, filter {}",
+                plan.indexName(), plan.keyConditionExpression(), plan.filterExpression());
+
+        // Query ConfigPathChangeItems, config changes complete within the page are fetched concurrently with the next query
+        Comparator<String> order = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        Map<String, List<ConfigPathChange>> matchedPathChanges = new HashMap<>();
+        List<String> timestamps = new ArrayList<>();
+        List<String> pendingTimestamps = new ArrayList<>();
+        List<CompletableFuture<List<ConfigChangeItem>>> batchGets = new ArrayList<>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        String evaluatedTimestamp = null;
+        String completeTimestamp = null;
+        int completeCount = 0;
+        int queryCount = 0;
+        boolean lastQuery;
+
+        Map<String, String> attributeNames = new HashMap<>(plan.attributeNames());
+        attributeNames.putAll(allPathChanges ? TIMESTAMP_PROJECTION_NAMES : PATH_CHANGE_PROJECTION_NAMES);
+
+        do {
+            QueryRequest.Builder queryBuilder = QueryRequest.builder()
+                    .tableName(tableName)
+                    .indexName(plan.indexName())
+                    .keyConditionExpression(plan.keyConditionExpression())
+                    .filterExpression(plan.filterExpression())
+                    .expressionAttributeValues(plan.attributeValues())
+                    .expressionAttributeNames(attributeNames)
+                    .projectionExpression(allPathChanges ? TIMESTAMP_PROJECTION : PATH_CHANGE_PROJECTION)
+                    .exclusiveStartKey(lastEvaluatedKey)
+                    .scanIndexForward(ascending)
+                    .limit(limit);
+
+            QueryResponse response = dynamoDbClient.query(queryBuilder.build());
+            lastEvaluatedKey = response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null;
+            queryCount++;
+
+            for (Map<String, AttributeValue> item : response.items()) {
+                String timestamp = item.get("timestamp").s();
+                if (timestamp.equals(cursorTimestamp)) continue;
+                if (timestamps.isEmpty() || !timestamps.get(timestamps.size() - 1).equals(timestamp)) {
+                    timestamps.add(timestamp);
+                }
+                if (!allPathChanges) {
+                    matchedPathChanges.computeIfAbsent(timestamp, t -> new ArrayList<>()).add(ConfigChangeUtils.toPathChange(ConfigTableSchemas.CONFIG_PATH_CHANGE.mapToItem(item)));
+                }
+            }
+
+            // Everything before the timestamp of the last evaluated key was evaluated, the rest if there is no key
+            String previousEvaluatedTimestamp = evaluatedTimestamp;
+            evaluatedTimestamp = lastEvaluatedKey != null ? timestampOf(lastEvaluatedKey) : null;
+            if (previousEvaluatedTimestamp != null && !previousEvaluatedTimestamp.equals(evaluatedTimestamp)) {
+                completeTimestamp = previousEvaluatedTimestamp;
+            }
+            while (completeCount < timestamps.size()
+                    && (evaluatedTimestamp == null || order.compare(timestamps.get(completeCount), evaluatedTimestamp) < 0)) {
+                String timestamp = timestamps.get(completeCount++);
+                if (completeTimestamp == null || order.compare(completeTimestamp, timestamp) < 0) completeTimestamp = timestamp;
+                if (allPathChanges && completeCount <= limit) pendingTimestamps.add(timestamp);
+            }
+
+            lastQuery = lastEvaluatedKey == null || completeCount >= limit
+                    || (queryCount >= MAX_QUERY_PAGES && completeTimestamp != null);
+            while (pendingTimestamps.size() >= BatchReader.MAX_BATCH_SIZE || (lastQuery && !pendingTimestamps.isEmpty())) {
+                List<String> chunk = pendingTimestamps.subList(0, Math.min(BatchReader.MAX_BATCH_SIZE, pendingTimestamps.size()));
+                batchGets.add(batchGetConfigChanges(configId, List.copyOf(chunk)));
+                chunk.clear();
+            }
+
+        } while (!lastQuery);
+
+        List<String> pageTimestamps = timestamps.subList(0, Math.min(completeCount, limit));
+        String nextCursor;
+        if (completeCount > pageTimestamps.size() || (completeCount == limit && lastEvaluatedKey != null)) {
+            nextCursor = pageTimestamps.get(pageTimestamps.size() - 1);
+        } else {
+            nextCursor = lastEvaluatedKey != null ? completeTimestamp : null;
+        }
+
+        Comparator<ConfigChangeItem> itemOrder = Comparator.comparing(ConfigChangeItem::getTimestamp, order);
+        Stream<ConfigChangeItem> changes = allPathChanges
+                ? batchGets.stream().flatMap(batchGet -> batchGet.join().stream())
+                : pageTimestamps.stream().map(timestamp -> ConfigChangeUtils.createConfigChangeItem(configId, timestamp, matchedPathChanges.get(timestamp)));
+        List<ConfigChangeItem> items = changes
+                .sorted(itemOrder)
+                .collect(Collectors.toList());
+        return new ChangePage(items, nextCursor != null ? Map.of(TIMESTAMP_CURSOR, AttributeValue.builder().s(nextCursor).build()) : null);
+    }
+
+    /**
+     * First and last path under the path prefix in the path index, empty if there is no path change under it.
+     * Path index is in path order, so if they are equal, all path changes under the prefix have that path.
+     */
+    private List<String> queryPathSpan(String configId, String pathPrefix) {
+        List<String> pathSpan = new ArrayList<>();
+        for (boolean forward : List.of(true, false)) {
+            QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                    .tableName(tableName)
+                    .indexName(ConfigPathChangeItem.CONFIG_PATH_INDEX)
+                    .keyConditionExpression("pk = :pk AND begins_with(pathSk, :path)")
+                    .expressionAttributeValues(Map.of(
+                            ":pk", AttributeValue.builder().s("CONFIG_PATH_CHANGE#" + configId).build(),
+                            ":path", AttributeValue.builder().s(pathPrefix).build()))
+                    .expressionAttributeNames(Map.of("#path", "path"))
+                    .projectionExpression("#path")
+                    .scanIndexForward(forward)
+                    .limit(1)
+                    .build());
+            if (response.items().isEmpty()) return List.of();
+            pathSpan.add(response.items().get(0).get("path").s());
+        }
+        return pathSpan;
+    }
+
+    // Timestamp of a path change key, the primary sort key is TYPE#timestamp#path on every index
+    private static String timestampOf(Map<String, AttributeValue> key) {
+        return key.get("sk").s().split("#", 3)[1];
+    }
+
+    private CompletableFuture<List<ConfigChangeItem>> batchGetConfigChanges(String configId, List<String> timestamps) {
+        List<Map<String, AttributeValue>> keys = timestamps.stream()
+                .map(timestamp -> Map.of(
+                        "pk", AttributeValue.builder().s("CONFIG_CHANGE#" + configId).build(),
+                        "sk", AttributeValue.builder().s(timestamp).build()))
+                .collect(Collectors.toList());
+
+        return batchReader.read(keys)
+                .thenApply(items -> items.stream()
+                        .map(this::convertToConfigChangeItem)
+                        .collect(Collectors.toList()));
+    }
+
+    private String buildTimestampCondition(String timestampFrom, String timestampTo) {
+        if (timestampFrom != null && timestampTo != null) {
+            return " AND (sk BETWEEN :tsFrom AND :tsTo)";
+        } else if (timestampFrom != null) {
+            return " AND sk >= :tsFrom";
+        } else if (timestampTo != null) {
+            return " AND sk <= :tsTo";
+        }
+        return "";
+    }
+
+    private Map<String, AttributeValue> buildAttributeValues(String configId, String timestampFrom, String timestampTo) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":pk", AttributeValue.builder().s("CONFIG_CHANGE#" + configId).build());
+
+        if (timestampFrom != null) {
+            values.put(":tsFrom", AttributeValue.builder().s(timestampFrom).build());
+        }
+        if (timestampTo != null) {
+            values.put(":tsTo", AttributeValue.builder().s(timestampTo).build());
+        }
+
+        return values;
+    }
+
+    private ConfigChangeItem convertToConfigChangeItem(Map<String, AttributeValue> item) {
+        return ConfigTableSchemas.CONFIG_CHANGE.mapToItem(item);
+    }
+}
@@ -0,0 +1,221 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * In-memory backend: every config has its own concurrent sorted maps of versions, changes and path changes, read
+ * without locks. Writes of one config are serialized by its store lock, the previous version is checked and all items
+ * are written before the new latest version is published (optimistic locking and all-or-nothing write as the DynamoDB
+ * transaction). Path changes are kept in timestamp and path order, same as the DynamoDB indexes. Versions are stored
+ * in full.
+ */
+public class InMemoryConfigRepository implements ConfigRepository {
+
+    // Greater than any character of timestamps and paths, closes key ranges of the last timestamp or of path prefix
+    private static final String MAX_SUFFIX = "#\uffff";
+    private static final String PREFIX_END = "\uffff";
+
+    private static class ConfigStore {
+        final AtomicReference<ConfigItem> latest = new AtomicReference<>();
+        final ConcurrentSkipListMap<String, ConfigItem> versions = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<String, ConfigChangeItem> changes = new ConcurrentSkipListMap<>();
+        // By timeSk (timestamp#TYPE#path) and pathSk (path#timestamp)
+        final ConcurrentSkipListMap<String, ConfigPathChangeItem> pathChangesByTime = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListMap<String, ConfigPathChangeItem> pathChangesByPath = new ConcurrentSkipListMap<>();
+    }
+
+    private final ConcurrentSkipListMap<String, ConfigStore> stores = new ConcurrentSkipListMap<>();
+
+    @Override
+    public ConfigItem getLatestConfig(String configId, boolean consistentRead) {
+        ConfigStore store = stores.get(configId);
+        return store != null ? store.latest.get() : null;
+    }
+
+    @Override
+    public String getLatestConfigTimestamp(String configId) {
+        ConfigItem latest = getLatestConfig(configId, false);
+        return latest != null ? latest.getTimestamp() : null;
+    }
+
+    @Override
+    public ConfigItem getConfigVersionAt(String configId, String timestamp) {
+        ConfigStore store = stores.get(configId);
+        Map.Entry<String, ConfigItem> version = store != null ? store.versions.floorEntry(timestamp) : null;
+        return version != null ? version.getValue() : null;
+    }
+
+    @Override
+    public String getConfigVersionTimestampAt(String configId, String timestamp) {
+        ConfigStore store = stores.get(configId);
+        return store != null ? store.versions.floorKey(timestamp) : null;
+    }
+
+    @Override
+    public ResultPage<ConfigItem> listLatestConfigs(int limit, String cursor, boolean summary) {
+        String lastConfigId = decodeCursor(cursor);
+        NavigableMap<String, ConfigStore> remaining = lastConfigId != null ? stores.tailMap(lastConfigId, false) : stores;
+
+        List<ConfigItem> items = new ArrayList<>();
+        for (ConfigStore store : remaining.values()) {
+            ConfigItem latest = store.latest.get();
+            if (latest == null) continue;
+            if (items.size() == limit) {
+                return new ResultPage<>(items, encodeCursor(items.get(items.size() - 1).getConfigId()));
+            }
+            items.add(summary ? toSummary(latest) : latest);
+        }
+        return new ResultPage<>(items, null);
+    }
+
+    @Override
+    public void putConfigVersion(ConfigItem item, ConfigItem previous,
+                                 ConfigChangeItem changeItem, List<ConfigPathChangeItem> pathChangeItems) {
+        ConfigStore store = stores.computeIfAbsent(item.getConfigId(), configId -> new ConfigStore());
+        synchronized (store) {
+            ConfigItem current = store.latest.get();
+            Long currentVersion = current != null ? current.getVersion() : null;
+            Long previousVersion = previous != null ? previous.getVersion() : null;
+            if (!Objects.equals(currentVersion, previousVersion)) {
+                throw new ConcurrentModificationException("Config was modified concurrently");
+            }
+
+            // Version of the same timestamp is not overwritten, like the attribute_not_exists condition of DynamoDB
+            if (store.versions.putIfAbsent(item.getTimestamp(), item) != null) {
+                throw new ConcurrentModificationException("Config version " + item.getTimestamp() + " already exists");
+            }
+            if (changeItem != null) {
+                store.changes.put(changeItem.getTimestamp(), changeItem);
+                pathChangeItems.forEach(pathChangeItem -> {
+                    store.pathChangesByTime.put(pathChangeItem.getTimeSk(), pathChangeItem);
+                    store.pathChangesByPath.put(pathChangeItem.getPathSk(), pathChangeItem);
+                });
+            }
+            // Published last, readers never see latest version without its history and changes
+            store.latest.set(item);
+        }
+    }
+
+    @Override
+    public int maxPathChangesPerWrite() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean hasChangeStream() {
+        return false;
+    }
+
+    /**
+     * Page ends on timestamp boundary, the cursor is the last timestamp of the page.
+     */
+    @Override
+    public ResultPage<ConfigChangeItem> queryConfigChanges(ChangeQuery query) {
+        ConfigStore store = stores.get(query.configId());
+        if (store == null) return new ResultPage<>(List.of(), null);
+        String lastTimestamp = decodeCursor(query.cursor());
+
+        Stream<ConfigChangeItem> changes = query.type() == null && query.path() == null
+                ? ordered(range(store.changes, query.timestampFrom(), query.timestampTo()), query.ascending()).values().stream()
+                        .filter(change -> isAfterCursor(change.getTimestamp(), lastTimestamp, query.ascending()))
+                : queryByPathChanges(store, query, lastTimestamp);
+
+        List<ConfigChangeItem> items = changes.limit(query.limit() + 1).toList();
+        if (items.size() <= query.limit()) return new ResultPage<>(items, null);
+        List<ConfigChangeItem> page = items.subList(0, query.limit());
+        return new ResultPage<>(page, encodeCursor(page.get(page.size() - 1).getTimestamp()));
+    }
+
+    /**
+     * Config changes with matching path changes, in timestamp order. Path prefix without bounded time window is read
+     * in path order, otherwise the time window is read in timestamp order.
+     */
+    private Stream<ConfigChangeItem> queryByPathChanges(ConfigStore store, ChangeQuery query, String lastTimestamp) {
+        Stream<ConfigPathChangeItem> pathChanges;
+        if (query.path() != null && (query.timestampFrom() == null || query.timestampTo() == null)) {
+            Comparator<ConfigPathChangeItem> order = Comparator.comparing(ConfigPathChangeItem::getTimestamp);
+            pathChanges = store.pathChangesByPath.subMap(query.path(), query.path() + PREFIX_END).values().stream()
+                    .filter(pathChange -> query.timestampFrom() == null || pathChange.getTimestamp().compareTo(query.timestampFrom()) >= 0)
+                    .filter(pathChange -> query.timestampTo() == null || pathChange.getTimestamp().compareTo(query.timestampTo()) <= 0)
+                    .sorted(query.ascending() ? order : order.reversed());
+        } else {
+            pathChanges = ordered(range(store.pathChangesByTime, query.timestampFrom(),
+                    query.timestampTo() != null ? query.timestampTo() + MAX_SUFFIX : null), query.ascending()).values().stream()
+                    .filter(pathChange -> query.path() == null || pathChange.getPath().startsWith(query.path()));
+        }
+        if (query.type() != null) {
+            pathChanges = pathChanges.filter(pathChange -> pathChange.getType().name().equals(query.type()));
+        }
+        pathChanges = pathChanges.filter(pathChange -> isAfterCursor(pathChange.getTimestamp(), lastTimestamp, query.ascending()));
+
+        // Matches are grouped by timestamp, one more group than the limit tells there is next page
+        Map<String, List<ConfigPathChange>> matchesByTimestamp = new LinkedHashMap<>();
+        Iterator<ConfigPathChangeItem> matches = pathChanges.iterator();
+        while (matches.hasNext()) {
+            ConfigPathChangeItem match = matches.next();
+            if (!matchesByTimestamp.containsKey(match.getTimestamp()) && matchesByTimestamp.size() > query.limit()) break;
+            matchesByTimestamp.computeIfAbsent(match.getTimestamp(), timestamp -> new ArrayList<>()).add(ConfigChangeUtils.toPathChange(match));
+        }
+        return matchesByTimestamp.entrySet().stream()
+                .map(entry -> query.allPathChanges()
+                        ? store.changes.get(entry.getKey())
+                        : ConfigChangeUtils.createConfigChangeItem(query.configId(), entry.getKey(), entry.getValue()))
+                .filter(Objects::nonNull);
+    }
+
+    private static boolean isAfterCursor(String timestamp, String lastTimestamp, boolean ascending) {
+        if (lastTimestamp == null) return true;
+        return ascending ? timestamp.compareTo(lastTimestamp) > 0 : timestamp.compareTo(lastTimestamp) < 0;
+    }
+
+    private static <V> NavigableMap<String, V> range(NavigableMap<String, V> map, String from, String to) {
+        if (from != null && to != null) return from.compareTo(to) <= 0 ? map.subMap(from, true, to, true) : new ConcurrentSkipListMap<>();
+        if (from != null) return map.tailMap(from, true);
+        if (to != null) return map.headMap(to, true);
+        return map;
+    }
+
+    private static <V> NavigableMap<String, V> ordered(NavigableMap<String, V> map, boolean ascending) {
+        return ascending ? map : map.descendingMap();
+    }
+
+    private static ConfigItem toSummary(ConfigItem item) {
+        ConfigItem summary = new ConfigItem();
+        summary.setConfigId(item.getConfigId());
+        summary.setTimestamp(item.getTimestamp());
+        summary.setVersion(item.getVersion());
+        return summary;
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+}
@@ -1,14 +1,23 @@
 package com.github.moravcik.configtracker.lib.utils;
 
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.Map;
 
 public class ApiUtils {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Clients may keep the response, but must revalidate it by If-None-Match before every use
+    private static final String CACHE_CONTROL = "private, no-cache";
 
     public static APIGatewayProxyResponseEvent createSuccessResponse(Object obj) throws JsonProcessingException {
         return createSuccessResponse(objectMapper.writeValueAsString(obj));
@@ -21,10 +30,91 @@ public class ApiUtils {
                 .withHeaders(Map.of("Content-Type", "application/json"));
     }
 
+    /**
+     * Success response with ETag and cache headers, see {@link #createETag(String...)}.
+     */
+    public static APIGatewayProxyResponseEvent createSuccessResponse(Object obj, String etag) throws JsonProcessingException {
+        Map<String, String> headers = createCacheHeaders(etag);
+        headers.put("Content-Type", "application/json");
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(objectMapper.writeValueAsString(obj))
+                .withHeaders(headers);
+    }
+
+    /**
+     * 304 response without body, for conditional requests with matching If-None-Match.
+     */
+    public static APIGatewayProxyResponseEvent createNotModifiedResponse(String etag) {
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(304)
+                .withHeaders(createCacheHeaders(etag));
+    }
+
+    private static Map<String, String> createCacheHeaders(String etag) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", etag);
+        headers.put("Cache-Control", CACHE_CONTROL);
+        return headers;
+    }
+
+    /**
+     * Strong ETag of a representation identified by the parts, e.g. config ID, version timestamp and selected paths.
+     */
+    public static String createETag(String... parts) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join("\n", parts).getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Whether the If-None-Match header value (single, list or "*") matches the ETag, weak comparison as required
+     * for If-None-Match.
+     */
+    public static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    /**
+     * Request header value, names are case-insensitive.
+     */
+    public static String getHeader(APIGatewayProxyRequestEvent event, String name) {
+        if (event.getHeaders() == null) return null;
+        return event.getHeaders().entrySet().stream()
+                .filter(header -> header.getKey().equalsIgnoreCase(name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Success response of a single page, cursor of the next page (if any) is returned in X-Next-Cursor header.
+     */
+    public static APIGatewayProxyResponseEvent createPageResponse(Object obj, String nextCursor) throws JsonProcessingException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (nextCursor != null) headers.put("X-Next-Cursor", nextCursor);
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(200)
+                .withBody(objectMapper.writeValueAsString(obj))
+                .withHeaders(headers);
+    }
+
+    /**
+     * Error response with the message serialized as JSON string, it may contain user input.
+     */
     public static APIGatewayProxyResponseEvent createErrorResponse(String message, int statusCode) {
         return new APIGatewayProxyResponseEvent()
                 .withStatusCode(statusCode)
-                .withBody("{\"error\":\"" + message + "\"}")
+                .withBody(objectMapper.createObjectNode().put("error", message).toString())
                 .withHeaders(Map.of("Content-Type", "application/json"));
     }
 }
\ No newline at end of file
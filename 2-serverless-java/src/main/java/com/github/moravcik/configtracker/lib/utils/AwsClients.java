@@ -0,0 +1,68 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+
+import java.time.Duration;
+
+/**
+ * Shared AWS SDK clients, created lazily once per execution environment.
+ * The sync client uses the lightweight URL connection HTTP client, async clients share one pooled Netty HTTP client,
+ * so concurrent requests (e.g. batch chunks) reuse open connections.
+ */
+public class AwsClients {
+
+    private static final int MAX_CONCURRENCY = 50;
+
+    private static class HttpClients {
+        static final SdkHttpClient httpClient = UrlConnectionHttpClient.builder()
+                .connectionTimeout(Duration.ofSeconds(2))
+                .socketTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static class AsyncHttpClients {
+        static final SdkAsyncHttpClient asyncHttpClient = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(MAX_CONCURRENCY)
+                .connectionTimeout(Duration.ofSeconds(2))
+                .connectionAcquisitionTimeout(Duration.ofSeconds(5))
+                .readTimeout(Duration.ofSeconds(5))
+                .writeTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static class DynamoDbClients {
+        static final DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
+                .httpClient(HttpClients.httpClient)
+                .build();
+    }
+
+    private static class DynamoDbAsyncClients {
+        static final DynamoDbAsyncClient dynamoDbAsyncClient = DynamoDbAsyncClient.builder()
+                .httpClient(AsyncHttpClients.asyncHttpClient)
+                .build();
+    }
+
+    private static class SnsAsyncClients {
+        static final SnsAsyncClient snsAsyncClient = SnsAsyncClient.builder()
+                .httpClient(AsyncHttpClients.asyncHttpClient)
+                .build();
+    }
+
+    public static DynamoDbClient dynamoDbClient() {
+        return DynamoDbClients.dynamoDbClient;
+    }
+
+    public static DynamoDbAsyncClient dynamoDbAsyncClient() {
+        return DynamoDbAsyncClients.dynamoDbAsyncClient;
+    }
+
+    public static SnsAsyncClient snsAsyncClient() {
+        return SnsAsyncClients.snsAsyncClient;
+    }
+}
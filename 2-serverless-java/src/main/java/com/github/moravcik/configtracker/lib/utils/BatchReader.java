@@ -0,0 +1,110 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads any number of items with BatchGetItem: splits the keys into chunks of 100 keys, reads the chunks
+ * concurrently and retries unprocessed keys with jittered exponential backoff, see {@link BatchWriter}.
+ */
+public class BatchReader {
+
+    public static final int MAX_BATCH_SIZE = 100; // DynamoDB BatchGetItem limit
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchReader.class);
+
+    private final DynamoDbAsyncClient dynamoDbClient;
+    private final String tableName;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public BatchReader(DynamoDbAsyncClient dynamoDbClient, String tableName) {
+        this(dynamoDbClient, tableName, 8, 50, 2000);
+    }
+
+    public BatchReader(DynamoDbAsyncClient dynamoDbClient, String tableName,
+                       int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Reads items of all keys, in order of the keys, keys without item are skipped. The future fails with
+     * IllegalStateException if any keys stay unprocessed after all attempts.
+     */
+    public CompletableFuture<List<Map<String, AttributeValue>>> read(List<Map<String, AttributeValue>> keys) {
+        if (keys.isEmpty()) return CompletableFuture.completedFuture(List.of());
+
+        List<CompletableFuture<List<Map<String, AttributeValue>>>> chunks = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += MAX_BATCH_SIZE) {
+            KeysAndAttributes request = KeysAndAttributes.builder()
+                    .keys(keys.subList(i, Math.min(i + MAX_BATCH_SIZE, keys.size())))
+                    .build();
+            chunks.add(readChunk(request, 1, new ArrayList<>()));
+        }
+
+        Set<String> keyAttributes = keys.get(0).keySet();
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<Map<String, AttributeValue>, Map<String, AttributeValue>> itemsByKey = new HashMap<>();
+            chunks.forEach(chunk -> chunk.join().forEach(item -> itemsByKey.put(keyOf(item, keyAttributes), item)));
+            return keys.stream()
+                    .map(itemsByKey::get)
+                    .filter(item -> item != null)
+                    .toList();
+        });
+    }
+
+    private CompletableFuture<List<Map<String, AttributeValue>>> readChunk(KeysAndAttributes request, int attempt,
+                                                                           List<Map<String, AttributeValue>> items) {
+        return dynamoDbClient.batchGetItem(r -> r.requestItems(Map.of(tableName, request)))
+                .thenCompose(response -> {
+                    items.addAll(response.responses().getOrDefault(tableName, List.of()));
+
+                    KeysAndAttributes unprocessed = getUnprocessedKeys(response);
+                    if (unprocessed == null) return CompletableFuture.completedFuture(items);
+                    if (attempt >= maxAttempts) {
+                        return CompletableFuture.failedFuture(new IllegalStateException(
+                                unprocessed.keys().size() + " keys unprocessed after " + maxAttempts + " batch get attempts"));
+                    }
+
+                    logger.info("Batch get attempt {}: {} of {} keys unprocessed", attempt, unprocessed.keys().size(), request.keys().size());
+                    return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                            .thenCompose(delayed -> readChunk(unprocessed, attempt + 1, items));
+                });
+    }
+
+    private KeysAndAttributes getUnprocessedKeys(BatchGetItemResponse response) {
+        if (!response.hasUnprocessedKeys()) return null;
+        KeysAndAttributes unprocessed = response.unprocessedKeys().get(tableName);
+        return unprocessed != null && unprocessed.hasKeys() && !unprocessed.keys().isEmpty() ? unprocessed : null;
+    }
+
+    private static Map<String, AttributeValue> keyOf(Map<String, AttributeValue> item, Set<String> keyAttributes) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        keyAttributes.forEach(name -> key.put(name, item.get(name)));
+        return key;
+    }
+
+    // Full jitter: random delay up to exponentially growing cap
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
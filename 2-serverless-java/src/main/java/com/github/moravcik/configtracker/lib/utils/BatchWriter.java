@@ -0,0 +1,133 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes any number of items with BatchWriteItem: splits them into chunks of 25 items, writes the chunks
+ * concurrently with bounded parallelism and retries unprocessed items with jittered exponential backoff.
+ */
+public class BatchWriter {
+
+    public static final int MAX_BATCH_SIZE = 25; // DynamoDB BatchWriteItem limit
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final ExecutorService executor;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public BatchWriter(DynamoDbClient dynamoDbClient, String tableName, int parallelism) {
+        this(dynamoDbClient, tableName, parallelism, 8, 50, 2000);
+    }
+
+    public BatchWriter(DynamoDbClient dynamoDbClient, String tableName, int parallelism,
+                       int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public record Result(int itemCount, int chunkCount, int requestCount, double consumedCapacityUnits) {}
+
+    private record ChunkResult(int requestCount, double consumedCapacityUnits) {}
+
+    /**
+     * Writes all requests, throws exception if any items stay unprocessed after all attempts.
+     */
+    public Result write(List<WriteRequest> writeRequests) {
+        List<List<WriteRequest>> chunks = new ArrayList<>();
+        for (int i = 0; i < writeRequests.size(); i += MAX_BATCH_SIZE) {
+            chunks.add(writeRequests.subList(i, Math.min(i + MAX_BATCH_SIZE, writeRequests.size())));
+        }
+
+        List<ChunkResult> chunkResults = new ArrayList<>();
+        if (chunks.size() == 1) {
+            chunkResults.add(writeChunk(chunks.get(0))); // no need to switch threads
+        } else if (chunks.size() > 1) {
+            List<CompletableFuture<ChunkResult>> futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.supplyAsync(() -> writeChunk(chunk), executor))
+                    .toList();
+            try {
+                futures.forEach(future -> chunkResults.add(future.join()));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+
+        return new Result(
+                writeRequests.size(),
+                chunks.size(),
+                chunkResults.stream().mapToInt(ChunkResult::requestCount).sum(),
+                chunkResults.stream().mapToDouble(ChunkResult::consumedCapacityUnits).sum()
+        );
+    }
+
+    private ChunkResult writeChunk(List<WriteRequest> chunk) {
+        List<WriteRequest> pending = chunk;
+        double consumedCapacityUnits = 0;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            List<WriteRequest> requestItems = pending;
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(r -> r
+                    .requestItems(Map.of(tableName, requestItems))
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL));
+
+            if (response.hasConsumedCapacity()) {
+                consumedCapacityUnits += response.consumedCapacity().stream()
+                        .map(ConsumedCapacity::capacityUnits)
+                        .filter(units -> units != null)
+                        .mapToDouble(Double::doubleValue)
+                        .sum();
+            }
+
+            pending = response.hasUnprocessedItems() ? response.unprocessedItems().getOrDefault(tableName, List.of()) : List.of();
+            if (pending.isEmpty()) return new ChunkResult(attempt, consumedCapacityUnits);
+
+            logger.info("Batch write attempt {}: {} of {} items unprocessed", attempt, pending.size(), chunk.size());
+            if (attempt < maxAttempts) sleep(backoffMillis(attempt));
+        }
+
+        throw new IllegalStateException(pending.size() + " items unprocessed after " + maxAttempts + " batch write attempts");
+    }
+
+    // Full jitter: random delay up to exponentially growing cap
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch write interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableSchemas;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creation of CONFIG_CHANGE and CONFIG_PATH_CHANGE items, shared by the API handler (changes calculated on write)
+ * and the stream handler (changes calculated from the stream).
+ */
+public class ConfigChangeUtils {
+
+    public static List<ConfigPathChange> calculatePathChanges(Config previous, Config latest) {
+        return ObjectUtils.calculateDifferences(previous, latest, false).stream()
+                .map(diff -> new ConfigPathChange(
+                        ConfigPathChange.ConfigPathChangeType.valueOf(diff.type.name()),
+                        diff.path,
+                        diff.oldValue,
+                        diff.newValue))
+                .toList();
+    }
+
+    public static ConfigChangeItem createConfigChangeItem(String configId, String timestamp, List<ConfigPathChange> pathChanges) {
+        ConfigChangeItem configChangeItem = new ConfigChangeItem();
+        configChangeItem.setPk("CONFIG_CHANGE#" + configId);
+        configChangeItem.setSk(timestamp);
+        configChangeItem.setEntityType(ConfigTableItem.EntityType.CONFIG_CHANGE);
+        configChangeItem.setConfigId(configId);
+        configChangeItem.setTimestamp(timestamp);
+        configChangeItem.setPathChanges(pathChanges);
+        return configChangeItem;
+    }
+
+    public static List<ConfigPathChangeItem> createPathChangeItems(String configId, String timestamp, List<ConfigPathChange> pathChanges) {
+        List<ConfigPathChangeItem> pathChangeItems = new ArrayList<>();
+        for (ConfigPathChange change : pathChanges) {
+            ConfigPathChangeItem pathChangeItem = new ConfigPathChangeItem();
+            pathChangeItem.setPk("CONFIG_PATH_CHANGE#" + configId);
+            pathChangeItem.setSk(change.getType() + "#" + timestamp + "#" + change.getPath());
+            pathChangeItem.setEntityType(ConfigTableItem.EntityType.CONFIG_PATH_CHANGE);
+            pathChangeItem.setConfigId(configId);
+            pathChangeItem.setType(change.getType());
+            pathChangeItem.setPath(change.getPath());
+            pathChangeItem.setOldValue(change.getOldValue());
+            pathChangeItem.setNewValue(change.getNewValue());
+            pathChangeItem.setTimestamp(timestamp);
+            pathChangeItem.setPathSk(createPathSk(change.getPath(), timestamp));
+            pathChangeItem.setTimeSk(createTimeSk(timestamp, change.getType(), change.getPath()));
+            pathChangeItems.add(pathChangeItem);
+        }
+        return pathChangeItems;
+    }
+
+    /**
+     * Sort key of ConfigPathIndex.
+     */
+    public static String createPathSk(String path, String timestamp) {
+        return path + "#" + timestamp;
+    }
+
+    /**
+     * Sort key of ConfigTimeIndex.
+     */
+    public static String createTimeSk(String timestamp, ConfigPathChange.ConfigPathChangeType type, String path) {
+        return timestamp + "#" + type + "#" + path;
+    }
+
+    public static ConfigPathChange toPathChange(ConfigPathChangeItem item) {
+        return new ConfigPathChange(item.getType(), item.getPath(), item.getOldValue(), item.getNewValue());
+    }
+
+    /**
+     * Raw DynamoDB item of path change, null old or new value is kept as NULL attribute.
+     */
+    public static Map<String, AttributeValue> toAttributeValues(ConfigPathChangeItem item) {
+        return ConfigTableSchemas.CONFIG_PATH_CHANGE.itemToMap(item, false);
+    }
+}
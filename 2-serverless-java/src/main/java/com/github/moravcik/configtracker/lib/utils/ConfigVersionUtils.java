@@ -0,0 +1,82 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.types.Config;
+
+import java.util.List;
+
+/**
+ * Snapshot-plus-delta storage of config versions. Every N-th version (starting with the first one) is stored
+ * with full config, versions in between store only JSON Patch from the previous version, see {@link JsonPatchUtils}.
+ * The CONFIG_LATEST pointer always holds full config.
+ */
+public class ConfigVersionUtils {
+
+    /**
+     * Snapshot interval without CONFIG_SNAPSHOT_INTERVAL environment variable or configSnapshotInterval CDK context.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Interval 1 or less stores every version as snapshot.
+     */
+    public static boolean isSnapshot(Long version, int snapshotInterval) {
+        return snapshotInterval <= 1 || version == null || (version - 1) % snapshotInterval == 0;
+    }
+
+    /**
+     * Version item as stored, either the item itself (snapshot) or its copy with delta from the previous config.
+     */
+    public static ConfigItem toStoredVersion(ConfigItem item, Config previousConfig, int snapshotInterval) {
+        if (previousConfig == null || isSnapshot(item.getVersion(), snapshotInterval)) return item;
+
+        ConfigItem stored = new ConfigItem();
+        stored.setPk(item.getPk());
+        stored.setSk(item.getSk());
+        stored.setEntityType(item.getEntityType());
+        stored.setConfigId(item.getConfigId());
+        stored.setTimestamp(item.getTimestamp());
+        stored.setVersion(item.getVersion());
+        stored.setChangeWritten(item.getChangeWritten());
+        try {
+            stored.setDelta(objectMapper.writeValueAsString(JsonPatchUtils.diff(
+                    objectMapper.valueToTree(previousConfig), objectMapper.valueToTree(item.getConfig()))));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize config delta", e);
+        }
+        return stored;
+    }
+
+    /**
+     * Sets config of delta versions by applying deltas to the nearest older snapshot.
+     *
+     * @param items versions ordered from the newest, ending with a snapshot unless the first version is included
+     * @param limit number of newest versions to reconstruct and return
+     * @throws IllegalStateException if a delta version has no older snapshot in the items
+     */
+    public static List<ConfigItem> reconstruct(List<ConfigItem> items, int limit) {
+        JsonNode node = null;
+        for (int i = items.size() - 1; i >= 0; i--) {
+            ConfigItem item = items.get(i);
+            if (item.getConfig() != null) {
+                node = i > 0 ? objectMapper.valueToTree(item.getConfig()) : null;
+            } else if (item.getDelta() != null) {
+                if (node == null) {
+                    throw new IllegalStateException("No snapshot of config " + item.getConfigId() + " before " + item.getTimestamp());
+                }
+                try {
+                    node = JsonPatchUtils.apply(node, objectMapper.readTree(item.getDelta()));
+                    if (i < limit) item.setConfig(objectMapper.treeToValue(node, Config.class));
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Failed to apply config delta", e);
+                }
+            }
+        }
+        return items.subList(0, Math.min(limit, items.size()));
+    }
+}
@@ -1,48 +1,217 @@
 package com.github.moravcik.configtracker.lib.utils;
 
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
 import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableSchemas;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
-import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class DynamoUtils {
 
-    private static final DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
-            .httpClient(UrlConnectionHttpClient.builder()
-                    .connectionTimeout(Duration.ofSeconds(2))
-                    .socketTimeout(Duration.ofSeconds(5))
-                    .build())
-            .build();
+    public static final String LATEST_SORT_KEY = "LATEST";
+    public static final int MAX_TRANSACTION_ITEMS = 100; // DynamoDB TransactWriteItems limit
+
+    private static final DynamoDbClient dynamoDbClient = AwsClients.dynamoDbClient();
 
     private static final DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
             .dynamoDbClient(dynamoDbClient)
             .build();
 
-    private static final DynamoDbTable<ConfigItem> configTable = enhancedClient.table(
-            System.getenv("CONFIG_TABLE_NAME"),
-            TableSchema.fromBean(ConfigItem.class)
-    );
+    private static final String tableName = System.getenv("CONFIG_TABLE_NAME");
+
+    private static final int snapshotInterval = System.getenv("CONFIG_SNAPSHOT_INTERVAL") != null
+            ? Integer.parseInt(System.getenv("CONFIG_SNAPSHOT_INTERVAL")) : ConfigVersionUtils.DEFAULT_SNAPSHOT_INTERVAL;
+
+    private static final DynamoDbTable<ConfigItem> configTable = enhancedClient.table(tableName, ConfigTableSchemas.CONFIG);
 
+    private static final BatchWriter batchWriter = new BatchWriter(dynamoDbClient, tableName, 4);
+
+    /**
+     * Newest config versions with full config, delta versions are reconstructed from the nearest older snapshot,
+     * which is read by the same query.
+     */
     public static List<ConfigItem> getLatestConfigEntity(String configId, int limit) {
-        return configTable.query(q -> q
-                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue("CONFIG#" + configId)))
+        return queryConfigVersions(QueryConditional.keyEqualTo(k -> k.partitionValue("CONFIG#" + configId)), limit);
+    }
+
+    /**
+     * Config version valid at the given timestamp (the newest one not after it), null if there is none.
+     * Timestamp is compared as string, it must have the stored format with millis (yyyy-MM-ddTHH:mm:ss.SSSZ).
+     */
+    public static ConfigItem getConfigVersionAt(String configId, String timestamp) {
+        List<ConfigItem> items = queryConfigVersions(QueryConditional.sortLessThanOrEqualTo(k -> k
+                .partitionValue("CONFIG#" + configId)
+                .sortValue(timestamp)), 1);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    /**
+     * Timestamp of the config version valid at the given timestamp, read as key-only projection of one version item,
+     * null if there is none.
+     */
+    public static String getConfigVersionTimestampAt(String configId, String timestamp) {
+        List<Map<String, AttributeValue>> items = dynamoDbClient.query(r -> r
+                .tableName(tableName)
+                .keyConditionExpression("pk = :pk AND sk <= :timestamp")
+                .expressionAttributeValues(Map.of(
+                        ":pk", AttributeValue.builder().s("CONFIG#" + configId).build(),
+                        ":timestamp", AttributeValue.builder().s(timestamp).build()))
+                .projectionExpression("sk")
+                .scanIndexForward(false)
+                .limit(1)).items();
+        return items.isEmpty() ? null : items.get(0).get("sk").s();
+    }
+
+    private static List<ConfigItem> queryConfigVersions(QueryConditional queryConditional, int limit) {
+        List<ConfigItem> items = new ArrayList<>();
+        for (ConfigItem item : configTable.query(q -> q
+                .queryConditional(queryConditional)
                 .scanIndexForward(false)
-                .limit(limit))
-                .items()
-                .stream()
-                .toList();
+                .limit(limit + snapshotInterval - 1))
+                .items()) {
+            items.add(item);
+            if (items.size() >= limit && item.getDelta() == null) break;
+        }
+        return ConfigVersionUtils.reconstruct(items, limit);
     }
 
     public static List<ConfigItem> getLatestConfigEntity(String configId) {
         return getLatestConfigEntity(configId, 1);
     }
 
+    /**
+     * Latest config version by single GetItem of the CONFIG_LATEST pointer item,
+     * falls back to query of config versions for configs saved before the pointer was introduced.
+     */
+    public static ConfigItem getLatestConfig(String configId, boolean consistentRead) {
+        ConfigItem latest = configTable.getItem(r -> r
+                .key(k -> k.partitionValue("CONFIG_LATEST#" + configId).sortValue(LATEST_SORT_KEY))
+                .consistentRead(consistentRead));
+        if (latest != null) return latest;
+
+        List<ConfigItem> items = getLatestConfigEntity(configId);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    /**
+     * Timestamp of the latest config version, read as key-only projection of the CONFIG_LATEST pointer,
+     * null if there is no pointer.
+     */
+    public static String getLatestConfigTimestamp(String configId) {
+        Map<String, AttributeValue> item = dynamoDbClient.getItem(r -> r
+                .tableName(tableName)
+                .key(Map.of(
+                        "pk", AttributeValue.builder().s("CONFIG_LATEST#" + configId).build(),
+                        "sk", AttributeValue.builder().s(LATEST_SORT_KEY).build()))
+                .projectionExpression("#timestamp")
+                .expressionAttributeNames(Map.of("#timestamp", "timestamp"))).item();
+        return item != null && item.containsKey("timestamp") ? item.get("timestamp").s() : null;
+    }
+
+    /**
+     * Writes new config version together with the CONFIG_LATEST pointer in one transaction.
+     * The pointer is conditioned by the previous version (optimistic locking), null previous version means
+     * there must be no pointer yet. Throws TransactionCanceledException when the condition fails.
+     * Unless the version is a snapshot, only its delta from the previous config is stored, see {@link ConfigVersionUtils}.
+     */
+    public static void putConfigVersion(ConfigItem item, ConfigItem previous) {
+        putConfigVersion(item, previous, null, List.of());
+    }
+
+    /**
+     * Writes new config version, the CONFIG_LATEST pointer and (if not null) the config change with its path changes
+     * in one transaction, see {@link #MAX_TRANSACTION_ITEMS}.
+     */
+    public static void putConfigVersion(ConfigItem item, ConfigItem previous,
+                                        ConfigChangeItem changeItem, List<ConfigPathChangeItem> pathChangeItems) {
+        Long previousVersion = previous != null ? previous.getVersion() : null;
+        ConfigItem stored = ConfigVersionUtils.toStoredVersion(item, previous != null ? previous.getConfig() : null, snapshotInterval);
+
+        ConfigItem latest = new ConfigItem();
+        latest.setPk("CONFIG_LATEST#" + item.getConfigId());
+        latest.setSk(LATEST_SORT_KEY);
+        latest.setEntityType(ConfigTableItem.EntityType.CONFIG_LATEST);
+        latest.setConfigId(item.getConfigId());
+        latest.setTimestamp(item.getTimestamp());
+        latest.setVersion(item.getVersion());
+        latest.setConfig(item.getConfig());
+        latest.setListPk("CONFIG");
+        latest.setListSk(item.getConfigId());
+
+        List<TransactWriteItem> transactItems = new ArrayList<>();
+        transactItems.add(putIfNotExists(configTable.tableSchema().itemToMap(stored, true)));
+        transactItems.add(TransactWriteItem.builder()
+                .put(previousVersion == null
+                        ? Put.builder()
+                                .tableName(tableName)
+                                .item(configTable.tableSchema().itemToMap(latest, true))
+                                .conditionExpression("attribute_not_exists(pk)")
+                                .build()
+                        : Put.builder()
+                                .tableName(tableName)
+                                .item(configTable.tableSchema().itemToMap(latest, true))
+                                .conditionExpression("#version = :version")
+                                .expressionAttributeNames(Map.of("#version", "version"))
+                                .expressionAttributeValues(Map.of(":version", AttributeValue.builder().n(previousVersion.toString()).build()))
+                                .build())
+                .build());
+        if (changeItem != null) {
+            transactItems.add(putIfNotExists(ConfigTableSchemas.CONFIG_CHANGE.itemToMap(changeItem, true)));
+            pathChangeItems.forEach(pathChangeItem -> transactItems.add(putIfNotExists(ConfigChangeUtils.toAttributeValues(pathChangeItem))));
+        }
+
+        dynamoDbClient.transactWriteItems(r -> r.transactItems(transactItems));
+    }
+
+    /**
+     * Writes config change item with async client, so it can run concurrently with writes of its path changes.
+     */
+    public static CompletableFuture<PutItemResponse> putConfigChangeAsync(ConfigChangeItem changeItem) {
+        return AwsClients.dynamoDbAsyncClient().putItem(r -> r
+                .tableName(tableName)
+                .item(ConfigTableSchemas.CONFIG_CHANGE.itemToMap(changeItem, true)));
+    }
+
+    private static TransactWriteItem putIfNotExists(Map<String, AttributeValue> item) {
+        return TransactWriteItem.builder()
+                .put(Put.builder()
+                        .tableName(tableName)
+                        .item(item)
+                        .conditionExpression("attribute_not_exists(pk)")
+                        .build())
+                .build();
+    }
+
+    /**
+     * Single page of latest config versions from the sparse list index, ordered by config ID.
+     * Summary lists only config IDs, timestamps and versions, without config bodies.
+     */
+    public static Page<ConfigItem> listLatestConfigs(int limit, Map<String, AttributeValue> exclusiveStartKey, boolean summary) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(k -> k.partitionValue("CONFIG")))
+                .exclusiveStartKey(exclusiveStartKey)
+                .limit(limit);
+        if (summary) {
+            request.attributesToProject("configId", "timestamp", "version");
+        }
+        return configTable.index(ConfigItem.CONFIG_LIST_INDEX).query(request.build()).iterator().next();
+    }
+
     public static DynamoDbClient getDynamoDbClient() { return dynamoDbClient; }
 
     public static DynamoDbEnhancedClient getEnhancedClient() {
@@ -53,4 +222,8 @@ public class DynamoUtils {
         return configTable;
     }
 
+    public static BatchWriter getBatchWriter() {
+        return batchWriter;
+    }
+
 }
\ No newline at end of file
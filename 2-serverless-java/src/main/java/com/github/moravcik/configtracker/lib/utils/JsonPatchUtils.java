@@ -0,0 +1,124 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Exact structural delta between two JSON trees as JSON Patch (RFC 6902), limited to add, remove and replace
+ * operations. Unlike {@link ObjectUtils#calculateDifferences} the patch keeps value types and distinguishes
+ * null values from missing fields, so applying it to the source tree gives exactly the target tree.
+ */
+public class JsonPatchUtils {
+
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = nodeFactory.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    /**
+     * @return patched copy, the source tree is not modified
+     * @throws IllegalArgumentException if an operation does not match the tree
+     */
+    public static JsonNode apply(JsonNode source, JsonNode patch) {
+        JsonNode result = source.deepCopy();
+        for (JsonNode operation : patch) {
+            result = applyOperation(result, operation);
+        }
+        return result;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.equals(target)) return;
+
+        if (source.isObject() && target.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = source.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String fieldPath = path + "/" + escape(field.getKey());
+                if (target.has(field.getKey())) {
+                    diff(fieldPath, field.getValue(), target.get(field.getKey()), patch);
+                } else {
+                    addOperation(patch, "remove", fieldPath, null);
+                }
+            }
+            fields = target.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!source.has(field.getKey())) {
+                    addOperation(patch, "add", path + "/" + escape(field.getKey()), field.getValue());
+                }
+            }
+        } else if (source.isArray() && target.isArray()) {
+            int common = Math.min(source.size(), target.size());
+            for (int i = 0; i < common; i++) {
+                diff(path + "/" + i, source.get(i), target.get(i), patch);
+            }
+            for (int i = common; i < target.size(); i++) {
+                addOperation(patch, "add", path + "/" + i, target.get(i));
+            }
+            // Trailing elements removed from the end, so the indexes stay valid
+            for (int i = source.size() - 1; i >= common; i--) {
+                addOperation(patch, "remove", path + "/" + i, null);
+            }
+        } else {
+            addOperation(patch, "replace", path, target);
+        }
+    }
+
+    private static void addOperation(ArrayNode patch, String op, String path, JsonNode value) {
+        ObjectNode operation = patch.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) operation.set("value", value.deepCopy());
+    }
+
+    private static JsonNode applyOperation(JsonNode root, JsonNode operation) {
+        String op = operation.path("op").asText();
+        JsonPointer pointer = JsonPointer.compile(operation.path("path").asText());
+        JsonNode value = operation.get("value");
+        if (!"add".equals(op) && !"replace".equals(op) && !"remove".equals(op)) {
+            throw new IllegalArgumentException("Unsupported operation: " + op);
+        }
+
+        if (pointer.matches()) {
+            if ("remove".equals(op)) return nodeFactory.nullNode();
+            return value;
+        }
+
+        JsonNode parent = root.at(pointer.head());
+        String property = pointer.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            if ("remove".equals(op)) {
+                if (object.remove(property) == null) throw new IllegalArgumentException("Missing field: " + pointer);
+            } else {
+                object.set(property, value);
+            }
+        } else if (parent instanceof ArrayNode array) {
+            int index = pointer.last().getMatchingIndex();
+            if (index < 0 || index > array.size() || (index == array.size() && !"add".equals(op))) {
+                throw new IllegalArgumentException("Invalid index: " + pointer);
+            }
+            switch (op) {
+                case "add" -> array.insert(index, value);
+                case "replace" -> array.set(index, value);
+                default -> array.remove(index);
+            }
+        } else {
+            throw new IllegalArgumentException("Missing parent: " + pointer);
+        }
+        return root;
+    }
+
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CloudWatch metrics in the embedded metric format, a single log line printed to Lambda stdout is turned into metrics
+ * by CloudWatch Logs, without PutMetricData calls on the request path.
+ */
+public class MetricsUtils {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public record Metric(String name, String unit, double value) {}
+
+    public static String createMetricLog(String namespace, Map<String, String> dimensions, List<Metric> metrics, long timestampMillis) {
+        ObjectNode log = objectMapper.createObjectNode();
+        ObjectNode directive = log.putObject("_aws").put("Timestamp", timestampMillis)
+                .putArray("CloudWatchMetrics").addObject().put("Namespace", namespace);
+        ArrayNode dimensionSet = directive.putArray("Dimensions").addArray();
+        dimensions.forEach((name, value) -> {
+            dimensionSet.add(name);
+            log.put(name, value);
+        });
+        ArrayNode definitions = directive.putArray("Metrics");
+        metrics.forEach(metric -> {
+            definitions.addObject().put("Name", metric.name()).put("Unit", metric.unit());
+            log.put(metric.name(), metric.value());
+        });
+        return log.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe cache of bounded size for values which can change, e.g. latest config versions. Entries are served
+ * without revalidation while within the TTL, expired entries are revalidated by a marker of the current value (e.g.
+ * version timestamp), which is much cheaper to read than the value itself. The least recently used entry is evicted.
+ */
+public class NearCache<K, V> {
+
+    public record Stats(long hits, long revalidations, long misses, long evictions, int size) {
+        public double hitRatio() {
+            long requests = hits + revalidations + misses;
+            return requests == 0 ? 0 : (double) (hits + revalidations) / requests;
+        }
+
+        /**
+         * Counts since the previous stats, e.g. of a metrics interval, size is the current one.
+         */
+        public Stats since(Stats previous) {
+            return new Stats(hits - previous.hits, revalidations - previous.revalidations, misses - previous.misses,
+                    evictions - previous.evictions, size);
+        }
+    }
+
+    private record Entry<V>(V value, String marker, long expiresAt) {}
+
+    private final Map<K, Entry<V>> entries;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private long hits;
+    private long revalidations;
+    private long misses;
+    private long evictions;
+
+    public NearCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    NearCache(int maxSize, Duration ttl, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Cached value, null on miss. Expired entry is kept for another TTL if its marker equals the current one
+     * from the loader, otherwise it is removed. The loader is called without holding the lock.
+     */
+    public V get(K key, Function<K, String> markerLoader) {
+        Entry<V> entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (nanoTime.getAsLong() - entry.expiresAt() < 0) {
+                hits++;
+                return entry.value();
+            }
+        }
+
+        String marker = markerLoader.apply(key);
+        synchronized (this) {
+            if (marker != null && marker.equals(entry.marker())) {
+                revalidations++;
+                // Entry replaced concurrently stays as it is
+                entries.replace(key, entry, new Entry<>(entry.value(), marker, nanoTime.getAsLong() + ttlNanos));
+                return entry.value();
+            }
+            misses++;
+            entries.remove(key, entry);
+            return null;
+        }
+    }
+
+    /**
+     * Cached value if its marker equals the current one already read by the caller, regardless of TTL, null otherwise.
+     * Entry of another marker is removed, expired entry of the current one is kept for another TTL.
+     */
+    public synchronized V getCurrent(K key, String marker) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || !entry.marker().equals(marker)) {
+            misses++;
+            if (entry != null) entries.remove(key);
+            return null;
+        }
+        if (nanoTime.getAsLong() - entry.expiresAt() < 0) {
+            hits++;
+        } else {
+            revalidations++;
+            entries.put(key, new Entry<>(entry.value(), marker, nanoTime.getAsLong() + ttlNanos));
+        }
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value, String marker) {
+        entries.put(key, new Entry<>(value, marker, nanoTime.getAsLong() + ttlNanos));
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, revalidations, misses, evictions, entries.size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled path expression in the same notation as difference paths, e.g. {@code creditPolicy.exceptions[1].maxCreditLimit}.
+ * The path is parsed only once and resolved against already built JSON tree without any conversion.
+ */
+public final class ObjectPath {
+
+    private static final int CACHE_LIMIT = 1024;
+    private static final Map<String, ObjectPath> cache = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final String[] fields; // field name of the step, null for array index step
+    private final int[] indexes;
+
+    private ObjectPath(String path, String[] fields, int[] indexes) {
+        this.path = path;
+        this.fields = fields;
+        this.indexes = indexes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    public static ObjectPath compile(String path) {
+        ObjectPath compiled = cache.get(path);
+        if (compiled != null) return compiled;
+
+        compiled = parse(path);
+        if (cache.size() < CACHE_LIMIT) cache.putIfAbsent(path, compiled);
+        return compiled;
+    }
+
+    /**
+     * Compiles comma separated list of paths, e.g. from query parameter.
+     */
+    public static List<ObjectPath> compileAll(String paths) {
+        return Arrays.stream(paths.split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .map(ObjectPath::compile)
+                .toList();
+    }
+
+    /**
+     * @return node at the path, or null if the path does not exist in the tree
+     */
+    public JsonNode resolve(JsonNode root) {
+        JsonNode node = root;
+        for (int i = 0; i < fields.length && node != null; i++) {
+            if (fields[i] != null) {
+                node = node.isObject() ? node.get(fields[i]) : null;
+            } else {
+                node = node.isArray() && indexes[i] < node.size() ? node.get(indexes[i]) : null;
+            }
+        }
+        return node;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static ObjectPath parse(String path) {
+        List<String> fields = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int length = path.length();
+        int pos = 0;
+
+        while (pos < length) {
+            // Field name, may be omitted for the first segment when starting with array index, e.g. "[0].name"
+            int start = pos;
+            while (pos < length && path.charAt(pos) != '.' && path.charAt(pos) != '[') pos++;
+            if (pos > start) {
+                fields.add(path.substring(start, pos));
+                indexes.add(-1);
+            } else if (start > 0 || pos == length || path.charAt(pos) != '[') {
+                throw new IllegalArgumentException("Invalid path: " + path);
+            }
+
+            // Array indexes, e.g. "exceptions[1]" or "matrix[0][1]"
+            while (pos < length && path.charAt(pos) == '[') {
+                int end = path.indexOf(']', pos);
+                if (end < 0) throw new IllegalArgumentException("Invalid path: " + path);
+                try {
+                    int index = Integer.parseInt(path.substring(pos + 1, end));
+                    if (index < 0) throw new IllegalArgumentException("Invalid path: " + path);
+                    fields.add(null);
+                    indexes.add(index);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid path: " + path);
+                }
+                pos = end + 1;
+            }
+
+            if (pos < length) {
+                if (path.charAt(pos) != '.' || pos == length - 1) throw new IllegalArgumentException("Invalid path: " + path);
+                pos++;
+            }
+        }
+
+        return new ObjectPath(
+                path,
+                fields.toArray(new String[0]),
+                indexes.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+}
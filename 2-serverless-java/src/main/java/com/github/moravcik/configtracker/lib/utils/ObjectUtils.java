@@ -2,15 +2,12 @@ package com.github.moravcik.configtracker.lib.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class ObjectUtils {
 
-    private static final Pattern PATH_PART_ARRAY_PATTERN = Pattern.compile("^(.+)\\[(\\d+)\\]$");
-
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     public enum DifferenceType {
@@ -36,89 +33,180 @@ public class ObjectUtils {
         if (!flat && obj1 == null) return List.of(new Difference(DifferenceType.ADD, "", null, obj2));
         if (!flat && obj2 == null) return List.of(new Difference(DifferenceType.REMOVE, "", obj1, null));
 
-        Map<String, Object> obj1Dot = flattenObject(obj1);
-        Map<String, Object> obj2Dot = flattenObject(obj2);
+        return calculateDifferences(toTree(obj1), toTree(obj2), flat);
+    }
 
-        Set<String> allPaths = new HashSet<>();
-        allPaths.addAll(obj1Dot.keySet());
-        allPaths.addAll(obj2Dot.keySet());
+    public static List<Difference> calculateDifferences(JsonNode node1, JsonNode node2, boolean flat) {
+        if (node1 == null && node2 == null) return new ArrayList<>();
+        if (!flat && node1 == null) return List.of(new Difference(DifferenceType.ADD, "", null, extractNodeValue(node2)));
+        if (!flat && node2 == null) return List.of(new Difference(DifferenceType.REMOVE, "", extractNodeValue(node1), null));
 
-        List<Difference> flatDiffs = allPaths.stream()
-                .map(path -> {
-                    DifferenceType type = getDifferenceType(obj1Dot, obj2Dot, path);
-                    Object oldValue = obj1Dot.get(path);  // Will be null for ADD operations
-                    Object newValue = obj2Dot.get(path);  // Will be null for REMOVE operations
-                    return new Difference(type, path, oldValue, newValue);
-                })
+        DifferenceWalker walker = new DifferenceWalker(flat);
+        walker.walk("", node1, node2);
+        return walker.differences.stream()
+                .map(ObjectUtils::toDifference)
                 .collect(Collectors.toList());
+    }
 
+    /**
+     * Merges the update into existing node, objects are merged recursively, arrays and primitives are replaced.
+     */
+    public static JsonNode deepMerge(JsonNode existing, JsonNode update) {
+        if (update.isNull()) return existing;
+        if (existing.isNull() || !existing.isObject() || !update.isObject()) return update;
 
-        if (flat) return flatDiffs.stream().filter(ObjectUtils::isDifference).collect(Collectors.toList());
+        ObjectNode merged = existing.deepCopy();
+        update.fields().forEachRemaining(entry -> {
+            String key = entry.getKey();
+            JsonNode value = entry.getValue();
 
-        List<Difference> diffs = flatDiffs;
-        List<Difference> reducedDiffs;
-        do {
-            reducedDiffs = mergeParentDifferences(obj1, obj2, diffs);
-        } while (reducedDiffs.size() < diffs.size() && (diffs = reducedDiffs) != null);
+            if (value.isArray() || !merged.has(key) || !merged.get(key).isObject()) {
+                merged.set(key, value);
+            } else {
+                merged.set(key, deepMerge(merged.get(key), value));
+            }
+        });
+        return merged;
+    }
 
-        return diffs.stream().filter(ObjectUtils::isDifference).collect(Collectors.toList());
+    private static JsonNode toTree(Object obj) {
+        if (obj == null) return null;
+        if (obj instanceof JsonNode node) return node;
+        return objectMapper.valueToTree(obj);
     }
 
-    private static boolean isDifference(Difference diff) {
-        return diff.type != DifferenceType.EQUAL;
+    private static Difference toDifference(PendingDifference diff) {
+        return new Difference(
+                diff.type,
+                diff.path,
+                diff.oldNode != null ? extractNodeValue(diff.oldNode) : null,
+                diff.newNode != null ? extractNodeValue(diff.newNode) : null
+        );
     }
 
-    private static DifferenceType getDifferenceType(Map<String, Object> obj1Dot, Map<String, Object> obj2Dot, String path) {
-        boolean hasVal1 = obj1Dot.containsKey(path);
-        boolean hasVal2 = obj2Dot.containsKey(path);
-
-        if (hasVal1 && hasVal2) {
-            Object val1 = obj1Dot.get(path);
-            Object val2 = obj2Dot.get(path);
-            
-            // If new value is null but old value exists, it's a REMOVE
-            if (val1 != null && val2 == null) {
-                return DifferenceType.REMOVE;
+    /**
+     * Difference found by the walker, node values are extracted only for differences which survive the parent merging.
+     */
+    private record PendingDifference(DifferenceType type, String path, JsonNode oldNode, JsonNode newNode) {}
+
+    /**
+     * Walks both trees together in one pass. Every leaf (primitive or null) present in either tree is compared,
+     * differences are collected in document order. In reduced (not flat) mode an object whose leaves all share
+     * the same difference type is collapsed into single difference on the object path.
+     */
+    private static class DifferenceWalker {
+        private final boolean flat;
+        private final List<PendingDifference> differences = new ArrayList<>();
+
+        DifferenceWalker(boolean flat) {
+            this.flat = flat;
+        }
+
+        /**
+         * @return bit mask of difference types (by ordinal) of all leaves under the path, 0 if there are no leaves
+         */
+        int walk(String path, JsonNode node1, JsonNode node2) {
+            if (node1 == null && node2 == null) return 0;
+
+            boolean container1 = node1 != null && node1.isContainerNode();
+            boolean container2 = node2 != null && node2.isContainerNode();
+
+            if (!container1 && !container2) return walkLeaf(path, node1, node2);
+
+            if (node1 != null && node2 != null && (!container1 || !container2 || node1.getNodeType() != node2.getNodeType())) {
+                // Structure changed (e.g. object replaced by array or primitive), old and new leaves are unrelated
+                return walk(path, node1, null) | walk(path, null, node2);
             }
-            // If old value is null but new value exists, it's an ADD
-            if (val1 == null && val2 != null) {
-                return DifferenceType.ADD;
+
+            JsonNode node = node1 != null ? node1 : node2;
+            boolean mergeable = !flat && !path.isEmpty() && node.isObject();
+
+            if (mergeable && (node1 == null || node2 == null)) {
+                // Whole subtree added or removed, no need to descend
+                if (!hasLeaves(node)) return 0;
+                DifferenceType type = node1 == null ? DifferenceType.ADD : DifferenceType.REMOVE;
+                differences.add(new PendingDifference(type, path, node1, node2));
+                return mask(type);
             }
-            
-            return Objects.equals(val1, val2) ? DifferenceType.EQUAL : DifferenceType.UPDATE;
-        } else if (hasVal2) {
-            return DifferenceType.ADD;  // This should have newValue from obj2Dot
-        } else {
-            return DifferenceType.REMOVE;  // This should have oldValue from obj1Dot
+
+            int start = differences.size();
+            int mask = node.isObject() ? walkObject(path, node1, node2) : walkArray(path, node1, node2);
+
+            if (mergeable && Integer.bitCount(mask) == 1) {
+                differences.subList(start, differences.size()).clear();
+                DifferenceType type = DifferenceType.values()[Integer.numberOfTrailingZeros(mask)];
+                if (type != DifferenceType.EQUAL) differences.add(new PendingDifference(type, path, node1, node2));
+            }
+            return mask;
+        }
+
+        private int walkObject(String path, JsonNode node1, JsonNode node2) {
+            int mask = 0;
+            if (node1 != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node1.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    mask |= walk(childPath(path, field.getKey()), field.getValue(), node2 != null ? node2.get(field.getKey()) : null);
+                }
+            }
+            if (node2 != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node2.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (node1 != null && node1.has(field.getKey())) continue;
+                    mask |= walk(childPath(path, field.getKey()), null, field.getValue());
+                }
+            }
+            return mask;
+        }
+
+        private int walkArray(String path, JsonNode node1, JsonNode node2) {
+            int mask = 0;
+            int size1 = node1 != null ? node1.size() : 0;
+            int size2 = node2 != null ? node2.size() : 0;
+            for (int i = 0; i < Math.max(size1, size2); i++) {
+                mask |= walk(path + "[" + i + "]", i < size1 ? node1.get(i) : null, i < size2 ? node2.get(i) : null);
+            }
+            return mask;
+        }
+
+        private int walkLeaf(String path, JsonNode node1, JsonNode node2) {
+            DifferenceType type = getDifferenceType(node1, node2);
+            if (type != DifferenceType.EQUAL) differences.add(new PendingDifference(type, path, node1, node2));
+            return mask(type);
+        }
+
+        private static String childPath(String path, String key) {
+            return path.isEmpty() ? key : path + "." + key;
+        }
+
+        private static int mask(DifferenceType type) {
+            return 1 << type.ordinal();
         }
     }
 
-    private static Map<String, Object> flattenObject(Object obj) {
-        Map<String, Object> flattened = new HashMap<>();
-        if (obj == null) return flattened;
-        JsonNode node = objectMapper.valueToTree(obj);
-        flattenNode("", node, flattened);
-        return flattened;
+    private static DifferenceType getDifferenceType(JsonNode node1, JsonNode node2) {
+        if (node1 == null) return DifferenceType.ADD;
+        if (node2 == null) return DifferenceType.REMOVE;
+
+        // If new value is null but old value exists, it's a REMOVE
+        if (!node1.isNull() && node2.isNull()) {
+            return DifferenceType.REMOVE;
+        }
+        // If old value is null but new value exists, it's an ADD
+        if (node1.isNull() && !node2.isNull()) {
+            return DifferenceType.ADD;
+        }
+
+        return node1.equals(node2) ? DifferenceType.EQUAL : DifferenceType.UPDATE;
     }
 
-    private static void flattenNode(String prefix, JsonNode node, Map<String, Object> result) {
-        if (node.isObject()) {
-            // Handle nested objects
-            node.fields().forEachRemaining(entry -> {
-                String key = prefix.isEmpty() ? entry.getKey() : prefix + "." + entry.getKey();
-                flattenNode(key, entry.getValue(), result);
-            });
-        } else if (node.isArray()) {
-            // Handle arrays with index notation
-            for (int i = 0; i < node.size(); i++) {
-                String key = prefix + "[" + i + "]";
-                flattenNode(key, node.get(i), result);
-            }
-        } else {
-            // Handle primitive values - fix the value extraction
-            Object value = extractNodeValue(node);
-            result.put(prefix, value);
+    private static boolean hasLeaves(JsonNode node) {
+        if (!node.isContainerNode()) return true;
+        for (JsonNode child : node) {
+            if (hasLeaves(child)) return true;
         }
+        return false;
     }
 
     private static Object extractNodeValue(JsonNode node) {
@@ -152,69 +240,4 @@ public class ObjectUtils {
         }
     }
 
-    private static List<Difference> mergeParentDifferences(Object obj1, Object obj2, List<Difference> diffs) {
-        List<Difference> reducedDiffs = new ArrayList<>();
-        Set<String> reducedPaths = new HashSet<>();
-
-        for (Difference diff : diffs) {
-            if (reducedPaths.contains(diff.path)) continue;
-
-            String parentPath = getParentPath(diff.path);
-            List<Difference> siblings = diffs.stream()
-                    .filter(d -> d.path.startsWith(parentPath + "."))
-                    .collect(Collectors.toList());
-
-            boolean allSameType = siblings.stream().allMatch(d -> d.type.equals(diff.type));
-
-            if (!parentPath.isEmpty() && allSameType) {
-                siblings.forEach(s -> reducedPaths.add(s.path));
-                reducedDiffs.add(new Difference(
-                        diff.type,
-                        parentPath,
-                        getValueAtPath(obj1, parentPath),
-                        getValueAtPath(obj2, parentPath)
-                ));
-            } else {
-                reducedDiffs.add(diff);
-            }
-        }
-        return reducedDiffs;
-    }
-
-    private static String getParentPath(String path) {
-        int lastDot = path.lastIndexOf('.');
-        return lastDot > 0 ? path.substring(0, lastDot) : "";
-    }
-
-    private static Object getValueAtPath(Object obj, String path) {
-        try {
-            JsonNode node = objectMapper.valueToTree(obj);
-            String[] parts = path.split("\\.");
-
-            for (String part : parts) {
-                Matcher matcher = PATH_PART_ARRAY_PATTERN.matcher(part);
-
-                if (matcher.matches()) {
-                    // Handle array access like "exceptions[1]"
-                    String fieldName = matcher.group(1);
-                    int index = Integer.parseInt(matcher.group(2));
-
-                    node = node.get(fieldName);
-                    if (node == null || !node.isArray() || index >= node.size()) {
-                        return null;
-                    }
-                    node = node.get(index);
-                } else {
-                    // Handle regular field access
-                    node = node.get(part);
-                    if (node == null) return null;
-                }
-            }
-
-            return extractNodeValue(node);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
 }
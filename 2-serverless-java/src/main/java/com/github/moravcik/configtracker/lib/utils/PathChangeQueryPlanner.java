@@ -0,0 +1,107 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Picks the key layout of CONFIG_PATH_CHANGE items covering the supplied criteria, so the most selective ones
+ * are key conditions and only the rest is filtered:
+ * <ul>
+ *   <li>type without path, optionally with time range - primary key ({@code TYPE#timestamp#path})</li>
+ *   <li>single path without bounded time window - path index ({@code path#timestamp}), type filtered</li>
+ *   <li>path prefix of several paths or bounded time window, or time range only - time index
+ *       ({@code timestamp#TYPE#path}), reads only the window, path and type filtered</li>
+ * </ul>
+ * All layouts return items in timestamp order. The time range and the page cursor (the last timestamp of the
+ * previous page, exclusive) are sort key ranges, so a page never reads items before the cursor.
+ */
+public class PathChangeQueryPlanner {
+
+    // Greater than any character of timestamps and paths, closes the key range of the last timestamp
+    private static final String MAX_SUFFIX = "#\uffff";
+
+    public record Plan(String indexName, String keyConditionExpression, String filterExpression,
+                       Map<String, String> attributeNames, Map<String, AttributeValue> attributeValues) {}
+
+    /**
+     * @param singlePath all path changes under the path prefix have this exact path
+     * @param cursor last timestamp of the previous page in the requested order, or null
+     */
+    public static Plan plan(String configId, String type, String path, boolean singlePath,
+                            String timestampFrom, String timestampTo, String cursor, boolean ascending) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        List<String> filters = new ArrayList<>();
+        values.put(":pk", s("CONFIG_PATH_CHANGE#" + configId));
+
+        boolean timeWindow = timestampFrom != null && timestampTo != null;
+        String indexName;
+        String keyCondition;
+        if (type != null && path == null) {
+            indexName = null;
+            keyCondition = "pk = :pk AND sk BETWEEN :skFrom AND :skTo";
+            UnaryOperator<String> key = timestamp -> type + "#" + timestamp;
+            values.put(":skFrom", s(lowerKey(key, timestampFrom, cursor, ascending, type + "#")));
+            values.put(":skTo", s(upperKey(key, timestampTo, cursor, ascending, type + MAX_SUFFIX)));
+        } else if (path != null && singlePath && !timeWindow) {
+            indexName = ConfigPathChangeItem.CONFIG_PATH_INDEX;
+            // Upper key of the descending cursor equals the pathSk of the cursor timestamp, the page loop skips it
+            keyCondition = "pk = :pk AND pathSk BETWEEN :pathFrom AND :pathTo";
+            UnaryOperator<String> key = timestamp -> ConfigChangeUtils.createPathSk(path, timestamp);
+            values.put(":pathFrom", s(lowerKey(key, timestampFrom, cursor, ascending, path + "#")));
+            values.put(":pathTo", s(upperKey(key, timestampTo, cursor, ascending, path + MAX_SUFFIX)));
+            if (type != null) {
+                filters.add("begins_with(sk, :type)");
+                values.put(":type", s(type + "#"));
+            }
+        } else {
+            indexName = ConfigPathChangeItem.CONFIG_TIME_INDEX;
+            keyCondition = "pk = :pk" + timeKeyCondition(
+                    lowerKey(UnaryOperator.identity(), timestampFrom, cursor, ascending, null),
+                    upperKey(UnaryOperator.identity(), timestampTo, cursor, ascending, null), values);
+            if (path != null) {
+                filters.add("begins_with(#path, :path)");
+                names.put("#path", "path");
+                values.put(":path", s(path));
+            }
+            if (type != null) {
+                filters.add("begins_with(sk, :type)");
+                values.put(":type", s(type + "#"));
+            }
+        }
+
+        return new Plan(indexName, keyCondition, filters.isEmpty() ? null : String.join(" AND ", filters), names, values);
+    }
+
+    // Lowest sort key of the page, after the cursor in ascending order, otherwise from the first key of timestampFrom
+    private static String lowerKey(UnaryOperator<String> key, String timestampFrom, String cursor, boolean ascending, String defaultKey) {
+        if (cursor != null && ascending) return key.apply(cursor) + MAX_SUFFIX;
+        return timestampFrom != null ? key.apply(timestampFrom) : defaultKey;
+    }
+
+    // Highest sort key of the page, before the cursor in descending order, otherwise up to the last key of timestampTo
+    private static String upperKey(UnaryOperator<String> key, String timestampTo, String cursor, boolean ascending, String defaultKey) {
+        if (cursor != null && !ascending) return key.apply(cursor);
+        return timestampTo != null ? key.apply(timestampTo) + MAX_SUFFIX : defaultKey;
+    }
+
+    private static String timeKeyCondition(String timeFrom, String timeTo, Map<String, AttributeValue> values) {
+        if (timeFrom != null) values.put(":tsFrom", s(timeFrom));
+        if (timeTo != null) values.put(":tsTo", s(timeTo));
+
+        if (timeFrom != null && timeTo != null) return " AND timeSk BETWEEN :tsFrom AND :tsTo";
+        if (timeFrom != null) return " AND timeSk >= :tsFrom";
+        if (timeTo != null) return " AND timeSk <= :tsTo";
+        return "";
+    }
+
+    private static AttributeValue s(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+}
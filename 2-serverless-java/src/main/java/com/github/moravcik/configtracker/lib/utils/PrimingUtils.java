@@ -0,0 +1,100 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableSchemas;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warm-up of hot code paths before the SnapStart snapshot is taken (CRaC beforeCheckpoint hooks of the handlers),
+ * so restored instances serve the first request at warm latency. Priming must never fail the checkpoint.
+ */
+public class PrimingUtils {
+
+    public static final String PRIMING_CONFIG_ID = "__priming__";
+
+    private static final Logger logger = LoggerFactory.getLogger(PrimingUtils.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Config serialisation, table schema mapping and diff engine, without any network calls.
+     */
+    public static void primeConfigProcessing() {
+        try {
+            Config previous = objectMapper.readValue(PrimingUtils.class.getResourceAsStream("/priming-config.json"), Config.class);
+            JsonNode update = objectMapper.readTree("{\"creditPolicy\":{\"maxCreditLimit\":60000,\"exceptions\":[]}}");
+            Config latest = objectMapper.treeToValue(ObjectUtils.deepMerge(objectMapper.valueToTree(previous), update), Config.class);
+
+            List<ConfigPathChange> pathChanges = ConfigChangeUtils.calculatePathChanges(previous, latest);
+            ObjectUtils.calculateDifferences(previous, latest, true);
+            ObjectPath.compile("creditPolicy.exceptions[0].segment").resolve(objectMapper.valueToTree(previous));
+
+            ConfigItem item = new ConfigItem();
+            item.setPk("CONFIG#" + PRIMING_CONFIG_ID);
+            item.setSk("1970-01-01T00:00:00.000Z");
+            item.setEntityType(ConfigTableItem.EntityType.CONFIG);
+            item.setConfigId(PRIMING_CONFIG_ID);
+            item.setTimestamp(item.getSk());
+            item.setVersion(1L);
+            item.setConfig(latest);
+            ConfigTableSchemas.CONFIG.mapToItem(ConfigTableSchemas.CONFIG.itemToMap(item, true));
+
+            // Delta version reconstructed from snapshot of the previous config
+            ConfigItem snapshot = new ConfigItem();
+            snapshot.setConfig(previous);
+            item.setVersion(2L);
+            ConfigVersionUtils.reconstruct(List.of(ConfigVersionUtils.toStoredVersion(item, previous, 2), snapshot), 1);
+
+            ConfigChangeItem changeItem = ConfigChangeUtils.createConfigChangeItem(PRIMING_CONFIG_ID, item.getTimestamp(), pathChanges);
+            ConfigTableSchemas.CONFIG_CHANGE.mapToItem(ConfigTableSchemas.CONFIG_CHANGE.itemToMap(changeItem, true));
+            for (ConfigPathChangeItem pathChangeItem : ConfigChangeUtils.createPathChangeItems(PRIMING_CONFIG_ID, item.getTimestamp(), pathChanges)) {
+                ConfigTableSchemas.CONFIG_PATH_CHANGE.mapToItem(ConfigChangeUtils.toAttributeValues(pathChangeItem));
+            }
+
+            objectMapper.writeValueAsString(Map.of("configId", PRIMING_CONFIG_ID, "pathChanges", pathChanges));
+            logger.info("Primed config processing with {} path changes", pathChanges.size());
+        } catch (Exception e) {
+            logger.warn("Priming of config processing failed", e);
+        }
+    }
+
+    /**
+     * SDK client setup, credentials, request signing and connections of both DynamoDB clients,
+     * by reading an item which does not exist.
+     */
+    public static void primeDynamoDb() {
+        Map<String, AttributeValue> key = Map.of(
+                "pk", AttributeValue.builder().s("CONFIG#" + PRIMING_CONFIG_ID).build(),
+                "sk", AttributeValue.builder().s(DynamoUtils.LATEST_SORT_KEY).build());
+        try {
+            AwsClients.dynamoDbClient().getItem(r -> r.tableName(System.getenv("CONFIG_TABLE_NAME")).key(key));
+            AwsClients.dynamoDbAsyncClient().getItem(r -> r.tableName(System.getenv("CONFIG_TABLE_NAME")).key(key)).join();
+            logger.info("Primed DynamoDB clients");
+        } catch (Exception e) {
+            logger.warn("Priming of DynamoDB clients failed", e);
+        }
+    }
+
+    /**
+     * SNS client setup only, there is no side-effect free call allowed by the function role.
+     */
+    public static void primeSns() {
+        try {
+            AwsClients.snsAsyncClient();
+            logger.info("Primed SNS client");
+        } catch (Exception e) {
+            logger.warn("Priming of SNS client failed", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes messages to SNS topic with PublishBatch in groups of 10 entries,
+ * entries failed in the batch are retried individually with Publish. All batches are sent concurrently.
+ */
+public class SnsBatchPublisher {
+
+    public static final int MAX_BATCH_SIZE = 10; // SNS PublishBatch limit
+
+    private static final Logger logger = LoggerFactory.getLogger(SnsBatchPublisher.class);
+
+    private final SnsAsyncClient snsClient;
+    private final String topicArn;
+
+    public SnsBatchPublisher(SnsAsyncClient snsClient, String topicArn) {
+        this.snsClient = snsClient;
+        this.topicArn = topicArn;
+    }
+
+    /**
+     * @return IDs of entries which could not be published, not even individually
+     */
+    public List<String> publish(List<PublishBatchRequestEntry> entries) {
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i += MAX_BATCH_SIZE) {
+            List<PublishBatchRequestEntry> chunk = entries.subList(i, Math.min(i + MAX_BATCH_SIZE, entries.size()));
+            futures.add(publishChunk(chunk).thenCompose(this::publishSingles));
+        }
+        return futures.stream()
+                .flatMap(future -> future.join().stream())
+                .toList();
+    }
+
+    /**
+     * @return entries failed in the batch
+     */
+    private CompletableFuture<List<PublishBatchRequestEntry>> publishChunk(List<PublishBatchRequestEntry> chunk) {
+        return snsClient.publishBatch(r -> r
+                        .topicArn(topicArn)
+                        .publishBatchRequestEntries(chunk))
+                .handle((response, e) -> {
+                    if (e != null) {
+                        logger.error("Batch publish of {} entries failed", chunk.size(), e);
+                        return chunk;
+                    }
+                    return getFailedEntries(chunk, response);
+                });
+    }
+
+    private static List<PublishBatchRequestEntry> getFailedEntries(List<PublishBatchRequestEntry> chunk, PublishBatchResponse response) {
+        if (!response.hasFailed() || response.failed().isEmpty()) return List.of();
+
+        Map<String, PublishBatchRequestEntry> entriesById = chunk.stream()
+                .collect(Collectors.toMap(PublishBatchRequestEntry::id, Function.identity()));
+        for (BatchResultErrorEntry error : response.failed()) {
+            logger.info("Batch publish of entry {} failed: {} {}", error.id(), error.code(), error.message());
+        }
+        return response.failed().stream()
+                .map(error -> entriesById.get(error.id()))
+                .toList();
+    }
+
+    /**
+     * @return IDs of entries failed also in single publish
+     */
+    private CompletableFuture<List<String>> publishSingles(List<PublishBatchRequestEntry> entries) {
+        List<CompletableFuture<String>> futures = entries.stream()
+                .map(entry -> snsClient.publish(r -> r
+                                .topicArn(topicArn)
+                                .message(entry.message())
+                                .subject(entry.subject())
+                                .messageAttributes(entry.messageAttributes()))
+                        .handle((response, e) -> {
+                            if (e == null) return (String) null;
+                            logger.error("Publish of entry {} failed", entry.id(), e);
+                            return entry.id();
+                        }))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .filter(id -> id != null)
+                        .toList());
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.moravcik.configtracker.server;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.github.moravcik.configtracker.lib.lambda.ConfigApiHandler;
+import com.github.moravcik.configtracker.lib.lambda.ConfigChangeApiHandler;
+import com.github.moravcik.configtracker.lib.repository.ConfigRepositories;
+import com.github.moravcik.configtracker.lib.repository.ConfigRepository;
+import com.github.moravcik.configtracker.lib.utils.ApiUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Standalone HTTP server running the API handlers in a long-lived process (on-prem, EC2), instead of API Gateway
+ * and Lambda. Requests are mapped onto API Gateway proxy events as API Gateway does, every request runs on its own
+ * virtual thread. Port is set by PORT environment variable (default 8080), storage by CONFIG_REPOSITORY.
+ */
+public class ConfigServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigServer.class);
+    private static final Pattern CONFIG_PATH = Pattern.compile("^/config(?:/([^/]+))?/?$");
+    private static final Pattern CONFIG_CHANGE_PATH = Pattern.compile("^/config/([^/]+)/change/?$");
+
+    private final HttpServer httpServer;
+    private final ConfigApiHandler configApiHandler;
+    private final ConfigChangeApiHandler configChangeApiHandler;
+
+    public ConfigServer(int port, ConfigRepository repository) throws IOException {
+        this.configApiHandler = new ConfigApiHandler(repository);
+        this.configChangeApiHandler = new ConfigChangeApiHandler(repository);
+        this.httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        this.httpServer.createContext("/", this::handle);
+        this.httpServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public void start() {
+        httpServer.start();
+        logger.info("Config server listening on port {}", getPort());
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = System.getenv("PORT") != null ? Integer.parseInt(System.getenv("PORT")) : 8080;
+        ConfigServer server = new ConfigServer(port, ConfigRepositories.get());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            writeResponse(exchange, route(exchange));
+        } catch (Exception e) {
+            logger.error("Error handling {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+        }
+    }
+
+    private APIGatewayProxyResponseEvent route(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        if (path.equals("/health")) {
+            return ApiUtils.createSuccessResponse(Map.of("status", "UP"));
+        }
+
+        Matcher changeMatcher = CONFIG_CHANGE_PATH.matcher(path);
+        if (changeMatcher.matches()) {
+            return configChangeApiHandler.handleRequest(createRequestEvent(exchange, changeMatcher.group(1)), null);
+        }
+        Matcher configMatcher = CONFIG_PATH.matcher(path);
+        if (configMatcher.matches()) {
+            return configApiHandler.handleRequest(createRequestEvent(exchange, configMatcher.group(1)), null);
+        }
+        return ApiUtils.createErrorResponse("Method/path not supported", 404);
+    }
+
+    private static APIGatewayProxyRequestEvent createRequestEvent(HttpExchange exchange, String configId) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> headers.put(name, values.get(0)));
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(exchange.getRequestURI().getPath())
+                .withPathParameters(configId != null ? Map.of("configId", URLDecoder.decode(configId, StandardCharsets.UTF_8)) : null)
+                .withQueryStringParameters(parseQuery(exchange.getRequestURI().getRawQuery()))
+                .withHeaders(headers)
+                .withBody(body.isEmpty() ? null : body);
+    }
+
+    // Null without parameters and the last value of repeated parameter, as API Gateway proxy integration
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return null;
+        Map<String, String> params = new HashMap<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            int separator = param.indexOf('=');
+            String name = separator >= 0 ? param.substring(0, separator) : param;
+            String value = separator >= 0 ? param.substring(separator + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void writeResponse(HttpExchange exchange, APIGatewayProxyResponseEvent response) throws IOException {
+        if (response.getHeaders() != null) {
+            response.getHeaders().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        }
+        byte[] body = response.getBody() != null ? response.getBody().getBytes(StandardCharsets.UTF_8) : null;
+        int statusCode = response.getStatusCode();
+        // Length -1 sends no body, 0 would mean chunked body
+        boolean noBody = body == null || body.length == 0 || statusCode == 304 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(statusCode, noBody ? -1 : body.length);
+        if (noBody) return;
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.moravcik.configtracker.tools;
+
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.utils.AwsClients;
+import com.github.moravcik.configtracker.lib.utils.DynamoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One-off backfill of CONFIG_LATEST pointers of configs saved before the pointer was introduced, without it they
+ * are missing in ConfigListIndex and in GET /config until their next save. The pointer is copied from the newest
+ * version item, its version is the number of versions. Configs with a pointer are skipped, so it can be rerun
+ * anytime. Table is set by CONFIG_TABLE_NAME environment variable.
+ */
+public class LatestPointerBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatestPointerBackfill.class);
+
+    private record ConfigVersions(String latestTimestamp, long count) {}
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public LatestPointerBackfill(DynamoDbClient dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    public static void main(String[] args) {
+        long created = new LatestPointerBackfill(AwsClients.dynamoDbClient(), System.getenv("CONFIG_TABLE_NAME")).run();
+        logger.info("Backfill finished, {} latest pointers created", created);
+    }
+
+    /**
+     * Scans version keys of all configs and creates missing pointers, returns number of created pointers.
+     */
+    public long run() {
+        Map<String, ConfigVersions> versions = scanConfigVersions();
+        logger.info("Scanned versions of {} configs", versions.size());
+
+        long created = 0;
+        for (Map.Entry<String, ConfigVersions> entry : versions.entrySet()) {
+            if (createPointer(entry.getKey(), entry.getValue())) created++;
+        }
+        return created;
+    }
+
+    private Map<String, ConfigVersions> scanConfigVersions() {
+        Map<String, ConfigVersions> versions = new HashMap<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            Map<String, AttributeValue> exclusiveStartKey = startKey;
+            ScanResponse response = dynamoDbClient.scan(r -> r
+                    .tableName(tableName)
+                    .filterExpression("entityType = :entityType")
+                    .projectionExpression("configId, #timestamp")
+                    .expressionAttributeNames(Map.of("#timestamp", "timestamp"))
+                    .expressionAttributeValues(Map.of(":entityType",
+                            AttributeValue.fromS(ConfigTableItem.EntityType.CONFIG.name())))
+                    .exclusiveStartKey(exclusiveStartKey));
+            for (Map<String, AttributeValue> item : response.items()) {
+                String timestamp = item.get("timestamp").s();
+                versions.merge(item.get("configId").s(), new ConfigVersions(timestamp, 1), (a, b) -> new ConfigVersions(
+                        a.latestTimestamp().compareTo(b.latestTimestamp()) >= 0 ? a.latestTimestamp() : b.latestTimestamp(),
+                        a.count() + b.count()));
+            }
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty() ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return versions;
+    }
+
+    private boolean createPointer(String configId, ConfigVersions versions) {
+        Map<String, AttributeValue> pointerKey = Map.of(
+                "pk", AttributeValue.fromS("CONFIG_LATEST#" + configId),
+                "sk", AttributeValue.fromS(DynamoUtils.LATEST_SORT_KEY));
+        if (dynamoDbClient.getItem(r -> r.tableName(tableName).key(pointerKey).projectionExpression("pk")).hasItem()) {
+            return false;
+        }
+
+        Map<String, AttributeValue> latest = dynamoDbClient.getItem(r -> r
+                .tableName(tableName)
+                .key(Map.of(
+                        "pk", AttributeValue.fromS("CONFIG#" + configId),
+                        "sk", AttributeValue.fromS(versions.latestTimestamp())))
+                .consistentRead(true)).item();
+        Map<String, AttributeValue> pointer = new HashMap<>(latest);
+        pointer.putAll(pointerKey);
+        pointer.put("entityType", AttributeValue.fromS(ConfigTableItem.EntityType.CONFIG_LATEST.name()));
+        pointer.put("version", AttributeValue.fromN(String.valueOf(versions.count())));
+        pointer.put("listPk", AttributeValue.fromS("CONFIG"));
+        pointer.put("listSk", AttributeValue.fromS(configId));
+        try {
+            dynamoDbClient.putItem(r -> r
+                    .tableName(tableName)
+                    .item(pointer)
+                    .conditionExpression("attribute_not_exists(pk)"));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false; // Created by a save since the check, it is newer
+        }
+    }
+}
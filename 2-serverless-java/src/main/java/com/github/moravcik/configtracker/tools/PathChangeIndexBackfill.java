@@ -0,0 +1,82 @@
+package com.github.moravcik.configtracker.tools;
+
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.AwsClients;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.Map;
+
+/**
+ * One-off backfill of index keys of path changes written before ConfigPathIndex and ConfigTimeIndex were
+ * introduced, without them old history is not found by path or time window. Only items missing the keys are
+ * updated, so it can be rerun anytime, e.g. after each index is created. Table is set by CONFIG_TABLE_NAME
+ * environment variable.
+ */
+public class PathChangeIndexBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PathChangeIndexBackfill.class);
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+
+    public PathChangeIndexBackfill(DynamoDbClient dynamoDbClient, String tableName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+    }
+
+    public static void main(String[] args) {
+        long updated = new PathChangeIndexBackfill(AwsClients.dynamoDbClient(), System.getenv("CONFIG_TABLE_NAME")).run();
+        logger.info("Backfill finished, {} path changes updated", updated);
+    }
+
+    /**
+     * Scans path changes without index keys and sets them, returns number of updated items.
+     */
+    public long run() {
+        long updated = 0;
+        Map<String, AttributeValue> startKey = null;
+        do {
+            Map<String, AttributeValue> exclusiveStartKey = startKey;
+            ScanResponse response = dynamoDbClient.scan(r -> r
+                    .tableName(tableName)
+                    .filterExpression("entityType = :entityType AND (attribute_not_exists(pathSk) OR attribute_not_exists(timeSk))")
+                    .projectionExpression("pk, sk, #type, #path, #timestamp")
+                    .expressionAttributeNames(Map.of("#type", "type", "#path", "path", "#timestamp", "timestamp"))
+                    .expressionAttributeValues(Map.of(":entityType",
+                            AttributeValue.fromS(ConfigTableItem.EntityType.CONFIG_PATH_CHANGE.name())))
+                    .exclusiveStartKey(exclusiveStartKey));
+            for (Map<String, AttributeValue> item : response.items()) {
+                if (update(item)) updated++;
+            }
+            logger.info("Backfilled index keys of {} path changes", updated);
+            startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty() ? response.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return updated;
+    }
+
+    private boolean update(Map<String, AttributeValue> item) {
+        String path = item.get("path").s();
+        String timestamp = item.get("timestamp").s();
+        ConfigPathChange.ConfigPathChangeType type = ConfigPathChange.ConfigPathChangeType.valueOf(item.get("type").s());
+        try {
+            dynamoDbClient.updateItem(r -> r
+                    .tableName(tableName)
+                    .key(Map.of("pk", item.get("pk"), "sk", item.get("sk")))
+                    .updateExpression("SET pathSk = :pathSk, timeSk = :timeSk")
+                    .conditionExpression("attribute_exists(pk)")
+                    .expressionAttributeValues(Map.of(
+                            ":pathSk", AttributeValue.fromS(ConfigChangeUtils.createPathSk(path, timestamp)),
+                            ":timeSk", AttributeValue.fromS(ConfigChangeUtils.createTimeSk(timestamp, type, path)))));
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false; // Deleted since the scan, not recreated
+        }
+    }
+}
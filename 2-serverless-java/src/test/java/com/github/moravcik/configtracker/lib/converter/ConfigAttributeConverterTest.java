@@ -0,0 +1,56 @@
+package com.github.moravcik.configtracker.lib.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.types.Config;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigAttributeConverterTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Config readExampleConfig() throws Exception {
+        return objectMapper.readValue(getClass().getResourceAsStream("/example-config.json"), Config.class);
+    }
+
+    @Test
+    public void testTransform_AllEncodings() throws Exception {
+        Config config = readExampleConfig();
+        for (ConfigEncoding encoding : ConfigEncoding.values()) {
+            ConfigAttributeConverter converter = new ConfigAttributeConverter(encoding);
+            AttributeValue value = converter.transformFrom(config);
+
+            if (encoding == ConfigEncoding.JSON) {
+                assertNotNull(value.s());
+            } else {
+                assertNull(value.s());
+                assertEquals(encoding.getTag(), value.b().asByteArray()[0]);
+            }
+            assertEquals(objectMapper.valueToTree(config), objectMapper.valueToTree(converter.transformTo(value)), encoding.name());
+        }
+    }
+
+    @Test
+    public void testTransformTo_ReadsAnyEncoding() throws Exception {
+        Config config = readExampleConfig();
+        AttributeValue json = new ConfigAttributeConverter(ConfigEncoding.JSON).transformFrom(config);
+        AttributeValue smile = new ConfigAttributeConverter(ConfigEncoding.SMILE).transformFrom(config);
+        AttributeValue deflated = new ConfigAttributeConverter(ConfigEncoding.SMILE_DEFLATE).transformFrom(config);
+
+        ConfigAttributeConverter reader = new ConfigAttributeConverter(ConfigEncoding.SMILE_DEFLATE);
+        assertEquals(objectMapper.valueToTree(config), objectMapper.valueToTree(reader.transformTo(json)));
+        assertEquals(objectMapper.valueToTree(config), objectMapper.valueToTree(reader.transformTo(smile)));
+        assertEquals(objectMapper.valueToTree(config), objectMapper.valueToTree(new ConfigAttributeConverter().transformTo(deflated)));
+
+        assertTrue(smile.b().asByteArray().length < json.s().length());
+        assertTrue(deflated.b().asByteArray().length < json.s().length());
+    }
+
+    @Test
+    public void testTransformTo_UnknownTag() {
+        AttributeValue value = AttributeValue.builder().b(SdkBytes.fromByteArray(new byte[]{9, 1, 2})).build();
+        assertThrows(IllegalArgumentException.class, () -> new ConfigAttributeConverter().transformTo(value));
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.moravcik.configtracker.lib.lambda;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.repository.InMemoryConfigRepository;
+import com.github.moravcik.configtracker.lib.types.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConfigApiHandlerTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger versionReads = new AtomicInteger();
+    private InMemoryConfigRepository repository;
+    private ConfigApiHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new InMemoryConfigRepository() {
+            @Override
+            public ConfigItem getConfigVersionAt(String configId, String timestamp) {
+                versionReads.incrementAndGet();
+                return super.getConfigVersionAt(configId, timestamp);
+            }
+        };
+        handler = new ConfigApiHandler(repository);
+    }
+
+    private ConfigItem createVersion(long version, String timestamp) throws Exception {
+        ConfigItem item = new ConfigItem();
+        item.setPk("CONFIG#id1");
+        item.setSk(timestamp);
+        item.setEntityType(ConfigTableItem.EntityType.CONFIG);
+        item.setConfigId("id1");
+        item.setTimestamp(timestamp);
+        item.setVersion(version);
+        item.setConfig(objectMapper.readValue(getClass().getResourceAsStream("/example-config.json"), Config.class));
+        return item;
+    }
+
+    private APIGatewayProxyResponseEvent getConfigAt(String at) {
+        return handler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/config/id1")
+                .withPathParameters(Map.of("configId", "id1"))
+                .withQueryStringParameters(Map.of("at", at)), null);
+    }
+
+    private APIGatewayProxyResponseEvent getLatestConfig(String ifNoneMatch) {
+        return handler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/config/id1")
+                .withPathParameters(Map.of("configId", "id1"))
+                .withHeaders(ifNoneMatch != null ? Map.of("If-None-Match", ifNoneMatch) : null), null);
+    }
+
+    @Test
+    public void testGet_IfNoneMatchOfCachedPreviousVersion() throws Exception {
+        ConfigItem first = createVersion(1, "2024-01-01T00:00:00.000Z");
+        repository.putConfigVersion(first, null, null, List.of());
+        String etag = getLatestConfig(null).getHeaders().get("ETag");
+
+        // Written by another instance while the first version is cached within TTL
+        ConfigItem second = createVersion(2, "2024-01-01T00:00:01.000Z");
+        repository.putConfigVersion(second, first, null, List.of());
+
+        APIGatewayProxyResponseEvent response = getLatestConfig(etag);
+        assertEquals(200, response.getStatusCode());
+        assertEquals(second.getTimestamp(), objectMapper.readTree(response.getBody()).get("timestamp").asText());
+        assertNotEquals(etag, response.getHeaders().get("ETag"));
+        assertEquals(304, getLatestConfig(response.getHeaders().get("ETag")).getStatusCode());
+    }
+
+    @Test
+    public void testGetAt_WholeSecondBeforeVersion() throws Exception {
+        ConfigItem first = createVersion(1, "2024-01-01T00:00:00.000Z");
+        ConfigItem second = createVersion(2, "2024-01-01T00:00:00.500Z");
+        repository.putConfigVersion(first, null, null, List.of());
+        repository.putConfigVersion(second, first, null, List.of());
+
+        APIGatewayProxyResponseEvent response = getConfigAt("2024-01-01T00:00:00Z");
+        assertEquals(200, response.getStatusCode());
+        assertEquals(first.getTimestamp(), objectMapper.readTree(response.getBody()).get("timestamp").asText());
+
+        // Served from the version cache, the same bound must not resolve to the later version
+        assertEquals(first.getTimestamp(), objectMapper.readTree(getConfigAt("2024-01-01T00:00:00Z").getBody()).get("timestamp").asText());
+        assertEquals(second.getTimestamp(), objectMapper.readTree(getConfigAt("2024-01-01T00:00:01Z").getBody()).get("timestamp").asText());
+    }
+
+    @Test
+    public void testGetAt_CachedByResolvedVersion() throws Exception {
+        repository.putConfigVersion(createVersion(1, "2024-01-01T00:00:00.000Z"), null, null, List.of());
+
+        assertEquals(200, getConfigAt("2024-01-01T10:00:00Z").getStatusCode());
+        assertEquals(200, getConfigAt("2024-01-02T08:30:00.123Z").getStatusCode());
+        assertEquals(1, versionReads.get());
+    }
+
+    @Test
+    public void testGetAt_BeforeFirstVersion() throws Exception {
+        repository.putConfigVersion(createVersion(1, "2024-01-01T00:00:00.500Z"), null, null, List.of());
+
+        assertEquals(404, getConfigAt("2024-01-01T00:00:00Z").getStatusCode());
+    }
+
+    @Test
+    public void testGetAt_InvalidTimestamp() throws Exception {
+        APIGatewayProxyResponseEvent response = getConfigAt("2024\"-01-01");
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals("Invalid timestamp: 2024\"-01-01", objectMapper.readTree(response.getBody()).get("error").asText());
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.moravcik.configtracker.lib.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+
+public class ConfigTableSchemasTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testConfigItem_RoundTrip() throws Exception {
+        Config config = objectMapper.readValue(getClass().getResourceAsStream("/example-config.json"), Config.class);
+        ConfigItem item = new ConfigItem();
+        item.setPk("CONFIG#id1");
+        item.setSk("2025-01-01T00:00:00.000Z");
+        item.setEntityType(ConfigTableItem.EntityType.CONFIG);
+        item.setConfigId("id1");
+        item.setTimestamp("2025-01-01T00:00:00.000Z");
+        item.setVersion(3L);
+        item.setChangeWritten(true);
+        item.setConfig(config);
+
+        Map<String, AttributeValue> map = ConfigTableSchemas.CONFIG.itemToMap(item, true);
+
+        assertEquals("CONFIG", map.get("entityType").s());
+        assertEquals("3", map.get("version").n());
+        assertTrue(map.get("changeWritten").bool());
+        assertNotNull(map.get("config").s());
+        assertFalse(map.containsKey("listPk")); // sparse list index
+
+        ConfigItem read = ConfigTableSchemas.CONFIG.mapToItem(map);
+        assertEquals(item.getPk(), read.getPk());
+        assertEquals(item.getEntityType(), read.getEntityType());
+        assertEquals(3L, read.getVersion());
+        assertEquals(objectMapper.valueToTree(config), objectMapper.valueToTree(read.getConfig()));
+    }
+
+    @Test
+    public void testConfigChangeItem_RoundTrip() {
+        List<ConfigPathChange> pathChanges = List.of(
+                new ConfigPathChange(ConfigPathChange.ConfigPathChangeType.UPDATE, "creditPolicy.maxCreditLimit", 50000, 60000),
+                new ConfigPathChange(ConfigPathChange.ConfigPathChangeType.ADD, "creditPolicy.exceptions[1]", null,
+                        Map.of("segment", "SMB", "maxCreditLimit", 20000)));
+        ConfigChangeItem item = ConfigChangeUtils.createConfigChangeItem("id1", "2025-01-01T00:00:00.000Z", pathChanges);
+
+        Map<String, AttributeValue> map = ConfigTableSchemas.CONFIG_CHANGE.itemToMap(item, true);
+        assertEquals(2, map.get("pathChanges").l().size());
+
+        ConfigChangeItem read = ConfigTableSchemas.CONFIG_CHANGE.mapToItem(map);
+        assertEquals(ConfigTableItem.EntityType.CONFIG_CHANGE, read.getEntityType());
+        assertEquals("60000", read.getPathChanges().get(0).getNewValue());
+        assertNull(read.getPathChanges().get(1).getOldValue());
+        assertEquals(Map.of("segment", "SMB", "maxCreditLimit", "20000"), read.getPathChanges().get(1).getNewValue());
+    }
+
+    @Test
+    public void testConfigPathChangeItem_RoundTrip() {
+        List<ConfigPathChangeItem> items = ConfigChangeUtils.createPathChangeItems("id1", "2025-01-01T00:00:00.000Z", List.of(
+                new ConfigPathChange(ConfigPathChange.ConfigPathChangeType.REMOVE, "approvalPolicy.levels[1]",
+                        Map.of("role", "CFO", "limit", 100000), null)));
+
+        Map<String, AttributeValue> map = ConfigChangeUtils.toAttributeValues(items.get(0));
+        assertEquals("CONFIG_PATH_CHANGE#id1", map.get("pk").s());
+        assertEquals("REMOVE#2025-01-01T00:00:00.000Z#approvalPolicy.levels[1]", map.get("sk").s());
+        assertEquals("approvalPolicy.levels[1]#2025-01-01T00:00:00.000Z", map.get("pathSk").s());
+        assertEquals("2025-01-01T00:00:00.000Z#REMOVE#approvalPolicy.levels[1]", map.get("timeSk").s());
+        assertEquals("REMOVE", map.get("type").s());
+        assertTrue(map.get("newValue").nul());
+        assertEquals("CFO", map.get("oldValue").m().get("role").s());
+
+        ConfigPathChangeItem read = ConfigTableSchemas.CONFIG_PATH_CHANGE.mapToItem(map);
+        assertEquals(ConfigPathChange.ConfigPathChangeType.REMOVE, read.getType());
+        assertEquals("approvalPolicy.levels[1]", read.getPath());
+        assertEquals(Map.of("role", "CFO", "limit", "100000"), read.getOldValue());
+        assertNull(read.getNewValue());
+    }
+}
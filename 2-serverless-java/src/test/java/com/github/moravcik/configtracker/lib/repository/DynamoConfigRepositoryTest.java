@@ -0,0 +1,204 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+public class DynamoConfigRepositoryTest {
+
+    private static final String TABLE_NAME = "ConfigTable";
+
+    /**
+     * Fake client of path change queries on the primary key and both indexes. Sort key conditions, Limit (items
+     * evaluated before the filter), ExclusiveStartKey and the path and type filters are applied like DynamoDB does.
+     */
+    private static class FakeDynamoDbClient implements DynamoDbClient {
+        final List<ConfigPathChangeItem> items = new ArrayList<>();
+        final List<QueryRequest> requests = new ArrayList<>();
+
+        @Override
+        public QueryResponse query(QueryRequest request) {
+            requests.add(request);
+            String sortKey = request.indexName() == null ? "sk"
+                    : request.indexName().equals(ConfigPathChangeItem.CONFIG_PATH_INDEX) ? "pathSk" : "timeSk";
+            Map<String, AttributeValue> values = request.expressionAttributeValues();
+            Comparator<Map<String, AttributeValue>> order = Comparator.comparing(item -> item.get(sortKey).s());
+            List<Map<String, AttributeValue>> matches = items.stream()
+                    .map(ConfigChangeUtils::toAttributeValues)
+                    .filter(item -> matchesKeyCondition(request.keyConditionExpression(), item.get(sortKey).s(), values))
+                    .sorted(request.scanIndexForward() == Boolean.FALSE ? order.reversed() : order)
+                    .toList();
+
+            int start = 0;
+            if (request.hasExclusiveStartKey()) {
+                String startSk = request.exclusiveStartKey().get("sk").s();
+                start = IntStream.range(0, matches.size()).filter(i -> matches.get(i).get("sk").s().equals(startSk)).findFirst().orElseThrow() + 1;
+            }
+            int end = request.limit() != null ? Math.min(start + request.limit(), matches.size()) : matches.size();
+            List<Map<String, AttributeValue>> evaluated = matches.subList(start, end);
+            Map<String, AttributeValue> lastEvaluatedKey = null;
+            if (end < matches.size()) {
+                lastEvaluatedKey = new HashMap<>();
+                for (String keyName : List.of("pk", "sk", sortKey)) lastEvaluatedKey.put(keyName, matches.get(end - 1).get(keyName));
+            }
+            return QueryResponse.builder()
+                    .items(evaluated.stream().filter(item -> matchesFilter(request.filterExpression(), item, values)).toList())
+                    .lastEvaluatedKey(lastEvaluatedKey)
+                    .build();
+        }
+
+        private static boolean matchesKeyCondition(String expression, String sortKeyValue, Map<String, AttributeValue> values) {
+            Matcher between = Pattern.compile("BETWEEN (:\\w+) AND (:\\w+)").matcher(expression);
+            if (between.find()) {
+                return sortKeyValue.compareTo(values.get(between.group(1)).s()) >= 0 && sortKeyValue.compareTo(values.get(between.group(2)).s()) <= 0;
+            }
+            Matcher comparison = Pattern.compile("(>=|<=) (:\\w+)").matcher(expression);
+            if (comparison.find()) {
+                int compared = sortKeyValue.compareTo(values.get(comparison.group(2)).s());
+                return comparison.group(1).equals(">=") ? compared >= 0 : compared <= 0;
+            }
+            return !expression.contains("begins_with(pathSk, :path)") || sortKeyValue.startsWith(values.get(":path").s());
+        }
+
+        private static boolean matchesFilter(String expression, Map<String, AttributeValue> item, Map<String, AttributeValue> values) {
+            if (expression == null) return true;
+            return (!expression.contains("begins_with(#path, :path)") || item.get("path").s().startsWith(values.get(":path").s()))
+                    && (!expression.contains("begins_with(sk, :type)") || item.get("sk").s().startsWith(values.get(":type").s()));
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static String timestamp(int second) {
+        return String.format("2025-01-01T00:00:%02d.000Z", second);
+    }
+
+    private static void addChange(FakeDynamoDbClient client, int second, List<String> paths) {
+        List<ConfigPathChange> pathChanges = paths.stream()
+                .map(path -> new ConfigPathChange(ConfigPathChange.ConfigPathChangeType.UPDATE, path, 1, 2))
+                .toList();
+        client.items.addAll(ConfigChangeUtils.createPathChangeItems("id1", timestamp(second), pathChanges));
+    }
+
+    private static List<String> paths(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("%s%02d", prefix, i)).toList();
+    }
+
+    private static List<String> timestamps(ConfigRepository.ResultPage<ConfigChangeItem> page) {
+        return page.items().stream().map(ConfigChangeItem::getTimestamp).toList();
+    }
+
+    @Test
+    public void testQueryConfigChanges_ByPathPrefixInterleaved() {
+        // creditPolicy.a changes at 1, 3 and 4, creditPolicy.b at 2 and 4, path order differs from time order
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        List<List<String>> changedPaths = List.of(List.of("creditPolicy.a"), List.of("creditPolicy.b"),
+                List.of("creditPolicy.a"), List.of("creditPolicy.a", "creditPolicy.b"));
+        for (int second = 1; second <= changedPaths.size(); second++) {
+            addChange(client, second, changedPaths.get(second - 1));
+        }
+        DynamoConfigRepository repository = new DynamoConfigRepository(client, null, TABLE_NAME);
+
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 2, null, false, false));
+        assertEquals(List.of(timestamp(4), timestamp(3)), timestamps(page));
+        assertEquals(2, page.items().get(0).getPathChanges().size());
+        // Prefix of several paths is read in time order from the time index
+        assertEquals(ConfigPathChangeItem.CONFIG_TIME_INDEX, client.requests.get(client.requests.size() - 1).indexName());
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 2, page.nextCursor(), false, false));
+        assertEquals(List.of(timestamp(2), timestamp(1)), timestamps(page));
+        assertNull(page.nextCursor());
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 3, null, true, false));
+        assertEquals(List.of(timestamp(1), timestamp(2), timestamp(3)), timestamps(page));
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 3, page.nextCursor(), true, false));
+        assertEquals(List.of(timestamp(4)), timestamps(page));
+        assertEquals(2, page.items().get(0).getPathChanges().size());
+    }
+
+    @Test
+    public void testQueryConfigChanges_ByExactPathFromCursorKey() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        for (int second = 1; second <= 6; second++) {
+            addChange(client, second, second % 2 == 0 ? List.of("creditPolicy.a", "creditPolicy.b") : List.of("creditPolicy.a"));
+        }
+        DynamoConfigRepository repository = new DynamoConfigRepository(client, null, TABLE_NAME);
+
+        List<String> pageTimestamps = new ArrayList<>();
+        String cursor = null;
+        do {
+            String previousTimestamp = pageTimestamps.isEmpty() ? null : pageTimestamps.get(pageTimestamps.size() - 1);
+            ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                    new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.a", null, null, 2, cursor, false, false));
+            pageTimestamps.addAll(timestamps(page));
+            QueryRequest lastRequest = client.requests.get(client.requests.size() - 1);
+            assertEquals(ConfigPathChangeItem.CONFIG_PATH_INDEX, lastRequest.indexName());
+            if (previousTimestamp != null) {
+                // Next page starts at the cursor timestamp in the key condition, not by filtering all matches
+                assertEquals("creditPolicy.a#" + previousTimestamp, lastRequest.expressionAttributeValues().get(":pathTo").s());
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(timestamp(6), timestamp(5), timestamp(4), timestamp(3), timestamp(2), timestamp(1)), pageTimestamps);
+    }
+
+    @Test
+    public void testQueryConfigChanges_PageEndsOnCompleteChange() {
+        // Change at 2 has more path changes than all queries of a page read
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+        addChange(client, 1, paths("a", 2));
+        addChange(client, 2, paths("b", 40));
+        addChange(client, 3, paths("c", 1));
+        DynamoConfigRepository repository = new DynamoConfigRepository(client, null, TABLE_NAME);
+
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", null, null, null, 3, null, true, false));
+        assertEquals(List.of(timestamp(1)), timestamps(page));
+        assertNotNull(page.nextCursor());
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", null, null, null, 3, page.nextCursor(), true, false));
+        assertEquals(List.of(timestamp(2), timestamp(3)), timestamps(page));
+        assertEquals(40, page.items().get(0).getPathChanges().size());
+        assertNull(page.nextCursor());
+
+        // No complete change within the query pages, reading continues to the end of the first one
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", null, null, null, 1, null, false, false));
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", null, null, null, 1, page.nextCursor(), false, false));
+        assertEquals(List.of(timestamp(2)), timestamps(page));
+        assertEquals(40, page.items().get(0).getPathChanges().size());
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", null, null, null, 1, page.nextCursor(), false, false));
+        assertEquals(List.of(timestamp(1)), timestamps(page));
+        assertNull(page.nextCursor());
+    }
+}
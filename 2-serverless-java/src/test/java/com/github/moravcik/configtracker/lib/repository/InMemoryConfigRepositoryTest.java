@@ -0,0 +1,234 @@
+package com.github.moravcik.configtracker.lib.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigChangeItem;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.types.Config;
+import com.github.moravcik.configtracker.lib.types.ConfigPathChange;
+import com.github.moravcik.configtracker.lib.utils.ConfigChangeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class InMemoryConfigRepositoryTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private InMemoryConfigRepository repository;
+
+    private Config readExampleConfig() throws Exception {
+        return objectMapper.readValue(getClass().getResourceAsStream("/example-config.json"), Config.class);
+    }
+
+    private static String timestamp(int second) {
+        return String.format("2025-01-01T00:00:%02d.000Z", second);
+    }
+
+    private ConfigItem createVersion(String configId, long version, Config config) {
+        ConfigItem item = new ConfigItem();
+        item.setPk("CONFIG#" + configId);
+        item.setSk(timestamp((int) version));
+        item.setEntityType(ConfigTableItem.EntityType.CONFIG);
+        item.setConfigId(configId);
+        item.setTimestamp(item.getSk());
+        item.setVersion(version);
+        item.setConfig(config);
+        return item;
+    }
+
+    /**
+     * Saves versions 1..count of config id1, each one changes maxCreditLimit, even ones also currency.
+     */
+    private void saveVersions(int count) throws Exception {
+        ConfigItem previous = null;
+        for (int version = 1; version <= count; version++) {
+            Config config = readExampleConfig();
+            config.getCreditPolicy().setMaxCreditLimit(1000.0 * version);
+            if (version % 2 == 0) config.getCreditPolicy().setCurrency(Config.CreditPolicy.Currency.USD);
+            ConfigItem item = createVersion("id1", version, config);
+
+            List<ConfigPathChange> pathChanges = previous != null
+                    ? ConfigChangeUtils.calculatePathChanges(previous.getConfig(), config) : List.of();
+            repository.putConfigVersion(item, previous,
+                    pathChanges.isEmpty() ? null : ConfigChangeUtils.createConfigChangeItem("id1", item.getTimestamp(), pathChanges),
+                    ConfigChangeUtils.createPathChangeItems("id1", item.getTimestamp(), pathChanges));
+            previous = item;
+        }
+    }
+
+    private static List<String> timestamps(ConfigRepository.ResultPage<ConfigChangeItem> page) {
+        return page.items().stream().map(ConfigChangeItem::getTimestamp).toList();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        repository = new InMemoryConfigRepository();
+    }
+
+    @Test
+    public void testPutConfigVersion() throws Exception {
+        saveVersions(3);
+
+        assertEquals(3L, repository.getLatestConfig("id1", false).getVersion());
+        assertEquals(timestamp(3), repository.getLatestConfigTimestamp("id1"));
+        assertEquals(2L, repository.getConfigVersionAt("id1", "2025-01-01T00:00:02.500Z").getVersion());
+        assertNull(repository.getConfigVersionAt("id1", timestamp(0)));
+        assertNull(repository.getLatestConfig("id2", false));
+    }
+
+    @Test
+    public void testPutConfigVersion_Conflict() throws Exception {
+        saveVersions(2);
+        ConfigItem stale = repository.getConfigVersionAt("id1", timestamp(1));
+
+        assertThrows(ConcurrentModificationException.class, () ->
+                repository.putConfigVersion(createVersion("id1", 3, readExampleConfig()), stale, null, List.of()));
+        assertThrows(ConcurrentModificationException.class, () ->
+                repository.putConfigVersion(createVersion("id1", 3, readExampleConfig()), null, null, List.of()));
+        assertEquals(2L, repository.getLatestConfig("id1", false).getVersion());
+    }
+
+    @Test
+    public void testPutConfigVersion_SameTimestamp() throws Exception {
+        saveVersions(2);
+        ConfigItem latest = repository.getLatestConfig("id1", false);
+        ConfigItem sameTimestamp = createVersion("id1", 3, readExampleConfig());
+        sameTimestamp.setSk(latest.getTimestamp());
+        sameTimestamp.setTimestamp(latest.getTimestamp());
+
+        assertThrows(ConcurrentModificationException.class, () ->
+                repository.putConfigVersion(sameTimestamp, latest, null, List.of()));
+        assertEquals(2L, repository.getLatestConfig("id1", false).getVersion());
+        assertEquals(2L, repository.getConfigVersionAt("id1", latest.getTimestamp()).getVersion());
+    }
+
+    @Test
+    public void testPutConfigVersion_ConcurrentWritersAndReader() throws Exception {
+        Config config = readExampleConfig();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger saved = new AtomicInteger();
+        // Latest version is published only after its version item is readable
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            while (running.get()) {
+                ConfigItem latest = repository.getLatestConfig("id1", false);
+                if (latest != null) assertNotNull(repository.getConfigVersionAt("id1", latest.getTimestamp()));
+            }
+        });
+
+        List<CompletableFuture<Void>> writers = IntStream.range(0, 4).mapToObj(writer -> CompletableFuture.runAsync(() -> {
+            for (int attempt = 0; attempt < 200; attempt++) {
+                ConfigItem previous = repository.getLatestConfig("id1", false);
+                long version = previous != null ? previous.getVersion() + 1 : 1;
+                ConfigItem item = createVersion("id1", version, config);
+                item.setSk(String.format("2025-01-01T%02d:%02d:%02d.000Z", version / 3600, version / 60 % 60, version % 60));
+                item.setTimestamp(item.getSk());
+                try {
+                    repository.putConfigVersion(item, previous, null, List.of());
+                    saved.incrementAndGet();
+                } catch (ConcurrentModificationException e) {
+                    // Another writer saved this version first
+                }
+            }
+        })).toList();
+        writers.forEach(CompletableFuture::join);
+        running.set(false);
+        reader.join();
+
+        assertEquals(saved.get(), repository.getLatestConfig("id1", false).getVersion());
+    }
+
+    @Test
+    public void testListLatestConfigs() throws Exception {
+        for (String configId : List.of("c", "a", "b")) {
+            repository.putConfigVersion(createVersion(configId, 1, readExampleConfig()), null, null, List.of());
+        }
+
+        ConfigRepository.ResultPage<ConfigItem> page = repository.listLatestConfigs(2, null, true);
+        assertEquals(List.of("a", "b"), page.items().stream().map(ConfigItem::getConfigId).toList());
+        assertNull(page.items().get(0).getConfig());
+
+        page = repository.listLatestConfigs(2, page.nextCursor(), false);
+        assertEquals(List.of("c"), page.items().stream().map(ConfigItem::getConfigId).toList());
+        assertNotNull(page.items().get(0).getConfig());
+        assertNull(page.nextCursor());
+
+        assertThrows(InvalidCursorException.class, () -> repository.listLatestConfigs(2, "%%%", false));
+    }
+
+    @Test
+    public void testQueryConfigChanges_Paging() throws Exception {
+        saveVersions(6);
+
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, null, timestamp(3), null, 2, null, false, false));
+        assertEquals(List.of(timestamp(6), timestamp(5)), timestamps(page));
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, null, timestamp(3), null, 2, page.nextCursor(), false, false));
+        assertEquals(List.of(timestamp(4), timestamp(3)), timestamps(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testQueryConfigChanges_ByPath() throws Exception {
+        saveVersions(6);
+
+        // Currency changes in versions 2..6, matched path changes only
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.curr", null, null, 3, null, true, false));
+        assertEquals(List.of(timestamp(2), timestamp(3), timestamp(4)), timestamps(page));
+        assertEquals(1, page.items().get(0).getPathChanges().size());
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.curr", null, null, 3, page.nextCursor(), true, true));
+        assertEquals(List.of(timestamp(5), timestamp(6)), timestamps(page));
+        assertEquals(2, page.items().get(0).getPathChanges().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testQueryConfigChanges_ByTypeAndTimeWindow() throws Exception {
+        saveVersions(6);
+
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", "UPDATE", "creditPolicy.", timestamp(2), timestamp(4), 10, null, true, false));
+        assertEquals(List.of(timestamp(2), timestamp(3), timestamp(4)), timestamps(page));
+        page.items().forEach(change -> change.getPathChanges()
+                .forEach(pathChange -> assertEquals(ConfigPathChange.ConfigPathChangeType.UPDATE, pathChange.getType())));
+    }
+
+    @Test
+    public void testQueryConfigChanges_ByPathPrefixInterleaved() throws Exception {
+        // creditPolicy.a changes at 1, 3 and 4, creditPolicy.b at 2 and 4, path order differs from time order
+        ConfigItem previous = null;
+        List<List<String>> changedPaths = List.of(List.of("creditPolicy.a"), List.of("creditPolicy.b"),
+                List.of("creditPolicy.a"), List.of("creditPolicy.a", "creditPolicy.b"));
+        for (int version = 1; version <= changedPaths.size(); version++) {
+            ConfigItem item = createVersion("id1", version, readExampleConfig());
+            List<ConfigPathChange> pathChanges = changedPaths.get(version - 1).stream()
+                    .map(path -> new ConfigPathChange(ConfigPathChange.ConfigPathChangeType.UPDATE, path, 1, 2))
+                    .toList();
+            repository.putConfigVersion(item, previous,
+                    ConfigChangeUtils.createConfigChangeItem("id1", item.getTimestamp(), pathChanges),
+                    ConfigChangeUtils.createPathChangeItems("id1", item.getTimestamp(), pathChanges));
+            previous = item;
+        }
+
+        ConfigRepository.ResultPage<ConfigChangeItem> page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 2, null, false, false));
+        assertEquals(List.of(timestamp(4), timestamp(3)), timestamps(page));
+        assertEquals(2, page.items().get(0).getPathChanges().size());
+
+        page = repository.queryConfigChanges(
+                new ConfigRepository.ChangeQuery("id1", null, "creditPolicy.", null, null, 2, page.nextCursor(), false, false));
+        assertEquals(List.of(timestamp(2), timestamp(1)), timestamps(page));
+        assertNull(page.nextCursor());
+    }
+}
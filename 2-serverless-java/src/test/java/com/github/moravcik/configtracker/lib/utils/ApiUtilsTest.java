@@ -0,0 +1,59 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Map;
+
+public class ApiUtilsTest {
+
+    @Test
+    public void testCreateETag() {
+        String etag = ApiUtils.createETag("id1", "2025-01-01T00:00:00.000Z", "");
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, ApiUtils.createETag("id1", "2025-01-01T00:00:00.000Z", ""));
+        assertNotEquals(etag, ApiUtils.createETag("id1", "2025-01-01T00:00:01.000Z", ""));
+        assertNotEquals(etag, ApiUtils.createETag("id1", "2025-01-01T00:00:00.000Z", "creditPolicy"));
+    }
+
+    @Test
+    public void testMatchesETag() {
+        String etag = ApiUtils.createETag("id1", "2025-01-01T00:00:00.000Z");
+
+        assertTrue(ApiUtils.matchesETag(etag, etag));
+        assertTrue(ApiUtils.matchesETag("W/" + etag, etag));
+        assertTrue(ApiUtils.matchesETag("\"other\", " + etag, etag));
+        assertTrue(ApiUtils.matchesETag("*", etag));
+        assertFalse(ApiUtils.matchesETag("\"other\"", etag));
+        assertFalse(ApiUtils.matchesETag(null, etag));
+    }
+
+    @Test
+    public void testCreateNotModifiedResponse() {
+        APIGatewayProxyResponseEvent response = ApiUtils.createNotModifiedResponse("\"abc\"");
+
+        assertEquals(304, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().get("ETag"));
+        assertEquals("private, no-cache", response.getHeaders().get("Cache-Control"));
+    }
+
+    @Test
+    public void testGetHeader() {
+        APIGatewayProxyRequestEvent event = new APIGatewayProxyRequestEvent().withHeaders(Map.of("if-none-match", "\"abc\""));
+
+        assertEquals("\"abc\"", ApiUtils.getHeader(event, "If-None-Match"));
+        assertNull(ApiUtils.getHeader(new APIGatewayProxyRequestEvent(), "If-None-Match"));
+    }
+
+    @Test
+    public void testCreateErrorResponse_EscapesMessage() throws Exception {
+        APIGatewayProxyResponseEvent response = ApiUtils.createErrorResponse("Invalid path: a\"b\\c", 400);
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals("Invalid path: a\"b\\c", new ObjectMapper().readTree(response.getBody()).get("error").asText());
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class BatchReaderTest {
+
+    private static final String TABLE_NAME = "ConfigTable";
+
+    /**
+     * Fake client which returns items in reverse order and leaves the first key of every request unprocessed
+     * for the given number of calls. Keys with odd sk have no item.
+     */
+    private static class FakeDynamoDbAsyncClient implements DynamoDbAsyncClient {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger throttledCalls;
+
+        FakeDynamoDbAsyncClient(int throttledCalls) {
+            this.throttledCalls = new AtomicInteger(throttledCalls);
+        }
+
+        @Override
+        public CompletableFuture<BatchGetItemResponse> batchGetItem(BatchGetItemRequest request) {
+            calls.incrementAndGet();
+            List<Map<String, AttributeValue>> keys = request.requestItems().get(TABLE_NAME).keys();
+            assertTrue(keys.size() <= BatchReader.MAX_BATCH_SIZE);
+
+            boolean throttled = throttledCalls.getAndDecrement() > 0;
+            List<Map<String, AttributeValue>> processed = throttled ? keys.subList(1, keys.size()) : keys;
+            List<Map<String, AttributeValue>> items = new ArrayList<>();
+            processed.stream()
+                    .filter(key -> Integer.parseInt(key.get("sk").s()) % 2 == 0)
+                    .forEach(key -> {
+                        Map<String, AttributeValue> item = new HashMap<>(key);
+                        item.put("value", key.get("sk"));
+                        items.add(item);
+                    });
+            Collections.reverse(items);
+
+            return CompletableFuture.completedFuture(BatchGetItemResponse.builder()
+                    .responses(Map.of(TABLE_NAME, items))
+                    .unprocessedKeys(throttled ? Map.of(TABLE_NAME, KeysAndAttributes.builder().keys(List.of(keys.get(0))).build()) : Map.of())
+                    .build());
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<Map<String, AttributeValue>> createKeys(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Map.of(
+                        "pk", AttributeValue.builder().s("ITEM").build(),
+                        "sk", AttributeValue.builder().s(String.valueOf(i)).build()))
+                .toList();
+    }
+
+    private static List<String> values(List<Map<String, AttributeValue>> items) {
+        return items.stream().map(item -> item.get("value").s()).toList();
+    }
+
+    @Test
+    public void testRead_ChunksInKeyOrder() {
+        FakeDynamoDbAsyncClient client = new FakeDynamoDbAsyncClient(0);
+        List<Map<String, AttributeValue>> items = new BatchReader(client, TABLE_NAME).read(createKeys(250)).join();
+
+        assertEquals(3, client.calls.get());
+        assertEquals(IntStream.range(0, 125).mapToObj(i -> String.valueOf(i * 2)).toList(), values(items));
+    }
+
+    @Test
+    public void testRead_RetryUnprocessedKeys() {
+        FakeDynamoDbAsyncClient client = new FakeDynamoDbAsyncClient(3);
+        List<Map<String, AttributeValue>> items = new BatchReader(client, TABLE_NAME, 8, 1, 5).read(createKeys(10)).join();
+
+        assertEquals(4, client.calls.get());
+        assertEquals(List.of("0", "2", "4", "6", "8"), values(items));
+    }
+
+    @Test
+    public void testRead_UnprocessedAfterAllAttempts() {
+        FakeDynamoDbAsyncClient client = new FakeDynamoDbAsyncClient(Integer.MAX_VALUE);
+        CompletableFuture<List<Map<String, AttributeValue>>> read = new BatchReader(client, TABLE_NAME, 3, 1, 5).read(createKeys(10));
+
+        CompletionException e = assertThrows(CompletionException.class, read::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(3, client.calls.get());
+    }
+
+    @Test
+    public void testRead_Empty() {
+        FakeDynamoDbAsyncClient client = new FakeDynamoDbAsyncClient(0);
+
+        assertTrue(new BatchReader(client, TABLE_NAME).read(List.of()).join().isEmpty());
+        assertEquals(0, client.calls.get());
+    }
+}
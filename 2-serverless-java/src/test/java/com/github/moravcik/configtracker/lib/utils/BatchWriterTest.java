@@ -0,0 +1,108 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class BatchWriterTest {
+
+    private static final String TABLE_NAME = "ConfigTable";
+
+    /**
+     * Fake client which leaves the last item of every request unprocessed for the given number of calls.
+     */
+    private static class FakeDynamoDbClient implements DynamoDbClient {
+        final Set<String> written = ConcurrentHashMap.newKeySet();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger throttledCalls;
+
+        FakeDynamoDbClient(int throttledCalls) {
+            this.throttledCalls = new AtomicInteger(throttledCalls);
+        }
+
+        @Override
+        public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+            calls.incrementAndGet();
+            List<WriteRequest> requests = request.requestItems().get(TABLE_NAME);
+            assertTrue(requests.size() <= BatchWriter.MAX_BATCH_SIZE);
+
+            boolean throttled = throttledCalls.getAndDecrement() > 0;
+            List<WriteRequest> processed = throttled ? requests.subList(0, requests.size() - 1) : requests;
+            processed.forEach(r -> written.add(r.putRequest().item().get("pk").s()));
+
+            return BatchWriteItemResponse.builder()
+                    .unprocessedItems(throttled ? Map.of(TABLE_NAME, List.of(requests.get(requests.size() - 1))) : Map.of())
+                    .consumedCapacity(ConsumedCapacity.builder().tableName(TABLE_NAME).capacityUnits((double) processed.size()).build())
+                    .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<WriteRequest> createWriteRequests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> WriteRequest.builder()
+                        .putRequest(p -> p.item(Map.of("pk", AttributeValue.builder().s("ITEM#" + i).build())))
+                        .build())
+                .toList();
+    }
+
+    @Test
+    public void testWrite_Chunks() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient(0);
+        BatchWriter.Result result = new BatchWriter(client, TABLE_NAME, 4).write(createWriteRequests(60));
+
+        assertEquals(60, client.written.size());
+        assertEquals(3, client.calls.get());
+        assertEquals(60, result.itemCount());
+        assertEquals(3, result.chunkCount());
+        assertEquals(3, result.requestCount());
+        assertEquals(60.0, result.consumedCapacityUnits());
+    }
+
+    @Test
+    public void testWrite_RetryUnprocessedItems() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient(3);
+        BatchWriter.Result result = new BatchWriter(client, TABLE_NAME, 2, 8, 1, 5).write(createWriteRequests(30));
+
+        assertEquals(30, client.written.size());
+        assertEquals(5, result.requestCount());
+        assertEquals(30.0, result.consumedCapacityUnits());
+    }
+
+    @Test
+    public void testWrite_UnprocessedAfterAllAttempts() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient(Integer.MAX_VALUE);
+        BatchWriter writer = new BatchWriter(client, TABLE_NAME, 1, 3, 1, 5);
+
+        assertThrows(IllegalStateException.class, () -> writer.write(createWriteRequests(10)));
+        assertEquals(3, client.calls.get());
+    }
+
+    @Test
+    public void testWrite_Empty() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient(0);
+        BatchWriter.Result result = new BatchWriter(client, TABLE_NAME, 1).write(List.of());
+
+        assertEquals(0, client.calls.get());
+        assertEquals(0, result.chunkCount());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.model.ConfigItem;
+import com.github.moravcik.configtracker.lib.model.ConfigTableItem;
+import com.github.moravcik.configtracker.lib.types.Config;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConfigVersionUtilsTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Config readExampleConfig() throws Exception {
+        return objectMapper.readValue(getClass().getResourceAsStream("/example-config.json"), Config.class);
+    }
+
+    private ConfigItem createVersion(long version, Config config) {
+        ConfigItem item = new ConfigItem();
+        item.setPk("CONFIG#id1");
+        item.setSk("2025-01-01T00:00:0" + version + ".000Z");
+        item.setEntityType(ConfigTableItem.EntityType.CONFIG);
+        item.setConfigId("id1");
+        item.setTimestamp(item.getSk());
+        item.setVersion(version);
+        item.setConfig(config);
+        return item;
+    }
+
+    private Config modify(Config config, double maxCreditLimit) {
+        Config modified = objectMapper.convertValue(config, Config.class);
+        modified.getCreditPolicy().setMaxCreditLimit(maxCreditLimit);
+        return modified;
+    }
+
+    private static JsonNode tree(Config config) {
+        return objectMapper.valueToTree(config);
+    }
+
+    @Test
+    public void testIsSnapshot() {
+        assertTrue(ConfigVersionUtils.isSnapshot(1L, 5));
+        assertFalse(ConfigVersionUtils.isSnapshot(2L, 5));
+        assertFalse(ConfigVersionUtils.isSnapshot(5L, 5));
+        assertTrue(ConfigVersionUtils.isSnapshot(6L, 5));
+        assertTrue(ConfigVersionUtils.isSnapshot(7L, 1));
+        assertTrue(ConfigVersionUtils.isSnapshot(null, 5));
+    }
+
+    @Test
+    public void testToStoredVersion() throws Exception {
+        Config previous = readExampleConfig();
+        ConfigItem item = createVersion(2, modify(previous, 60000));
+
+        ConfigItem stored = ConfigVersionUtils.toStoredVersion(item, previous, 5);
+        assertNull(stored.getConfig());
+        assertEquals(item.getSk(), stored.getSk());
+        assertEquals(2L, stored.getVersion());
+        assertEquals(1, objectMapper.readTree(stored.getDelta()).size());
+
+        assertSame(item, ConfigVersionUtils.toStoredVersion(item, previous, 1));
+        assertSame(item, ConfigVersionUtils.toStoredVersion(item, null, 5));
+    }
+
+    @Test
+    public void testReconstruct() throws Exception {
+        List<Config> configs = new ArrayList<>();
+        List<ConfigItem> stored = new ArrayList<>();
+        Config previous = null;
+        for (int version = 1; version <= 7; version++) {
+            Config config = modify(readExampleConfig(), 1000 * version);
+            configs.add(config);
+            stored.add(0, ConfigVersionUtils.toStoredVersion(createVersion(version, config), previous, 3));
+            previous = config;
+        }
+        // Snapshots 1, 4, 7 - take newest 3 versions down to snapshot 4: 6, 5, 4
+        List<ConfigItem> items = new ArrayList<>(stored.subList(1, 4));
+        assertNull(items.get(0).getConfig());
+
+        List<ConfigItem> reconstructed = ConfigVersionUtils.reconstruct(items, 2);
+
+        assertEquals(2, reconstructed.size());
+        assertEquals(tree(configs.get(5)), tree(reconstructed.get(0).getConfig()));
+        assertEquals(tree(configs.get(4)), tree(reconstructed.get(1).getConfig()));
+    }
+
+    @Test
+    public void testReconstruct_MissingSnapshot() throws Exception {
+        Config previous = readExampleConfig();
+        ConfigItem stored = ConfigVersionUtils.toStoredVersion(createVersion(2, modify(previous, 60000)), previous, 5);
+
+        assertThrows(IllegalStateException.class, () -> ConfigVersionUtils.reconstruct(List.of(stored), 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonPatchUtilsTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private void assertRoundTrip(String sourceJson, String targetJson) throws Exception {
+        JsonNode source = objectMapper.readTree(sourceJson);
+        JsonNode target = objectMapper.readTree(targetJson);
+        JsonNode sourceCopy = source.deepCopy();
+
+        ArrayNode patch = JsonPatchUtils.diff(source, target);
+
+        assertEquals(target, JsonPatchUtils.apply(source, patch), patch.toString());
+        assertEquals(sourceCopy, source); // source is not modified
+    }
+
+    @Test
+    public void testDiff_EqualTrees() throws Exception {
+        JsonNode node = objectMapper.readTree("{\"a\":1,\"b\":[1,2]}");
+        assertEquals(0, JsonPatchUtils.diff(node, node.deepCopy()).size());
+    }
+
+    @Test
+    public void testDiff_SingleValueUpdate() throws Exception {
+        ArrayNode patch = JsonPatchUtils.diff(
+                objectMapper.readTree("{\"creditPolicy\":{\"maxCreditLimit\":50000,\"currency\":\"EUR\"}}"),
+                objectMapper.readTree("{\"creditPolicy\":{\"maxCreditLimit\":60000,\"currency\":\"EUR\"}}"));
+
+        assertEquals(objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/creditPolicy/maxCreditLimit\",\"value\":60000}]"), patch);
+    }
+
+    @Test
+    public void testRoundTrip_Objects() throws Exception {
+        assertRoundTrip("{\"a\":1,\"b\":{\"c\":true,\"d\":\"x\"}}", "{\"a\":2,\"b\":{\"d\":\"y\",\"e\":null}}");
+        assertRoundTrip("{\"a\":null}", "{\"a\":{\"b\":1}}");
+        assertRoundTrip("{\"a\":{\"b\":1}}", "{\"a\":[1]}");
+        assertRoundTrip("{\"a/b\":1,\"c~d\":2}", "{\"a/b\":3,\"e~f/g\":4}");
+    }
+
+    @Test
+    public void testRoundTrip_Arrays() throws Exception {
+        assertRoundTrip("{\"a\":[1,2,3,4]}", "{\"a\":[1,5]}");
+        assertRoundTrip("{\"a\":[1]}", "{\"a\":[1,{\"b\":2},3]}");
+        assertRoundTrip("{\"a\":[{\"b\":1},{\"b\":2}]}", "{\"a\":[{\"b\":1,\"c\":null},null]}");
+        assertRoundTrip("[[1,2],[3]]", "[[1],[3,4],[]]");
+    }
+
+    @Test
+    public void testRoundTrip_Root() throws Exception {
+        assertRoundTrip("{\"a\":1}", "[1]");
+        assertRoundTrip("1", "\"x\"");
+    }
+
+    @Test
+    public void testApply_InvalidOperation() throws Exception {
+        JsonNode source = objectMapper.readTree("{\"a\":[1]}");
+
+        assertThrows(IllegalArgumentException.class, () -> JsonPatchUtils.apply(source,
+                objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/b\"}]")));
+        assertThrows(IllegalArgumentException.class, () -> JsonPatchUtils.apply(source,
+                objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/a/1\",\"value\":2}]")));
+        assertThrows(IllegalArgumentException.class, () -> JsonPatchUtils.apply(source,
+                objectMapper.readTree("[{\"op\":\"move\",\"path\":\"/a\"}]")));
+    }
+}
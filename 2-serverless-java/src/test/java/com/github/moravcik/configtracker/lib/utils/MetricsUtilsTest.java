@@ -0,0 +1,30 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+
+public class MetricsUtilsTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testCreateMetricLog() throws Exception {
+        JsonNode log = objectMapper.readTree(MetricsUtils.createMetricLog("ConfigTracker", Map.of("Cache", "latest"),
+                List.of(new MetricsUtils.Metric("CacheHits", "Count", 3), new MetricsUtils.Metric("CacheHitRatio", "None", 0.75)),
+                1700000000000L));
+
+        JsonNode directive = log.get("_aws").get("CloudWatchMetrics").get(0);
+        assertEquals(1700000000000L, log.get("_aws").get("Timestamp").asLong());
+        assertEquals("ConfigTracker", directive.get("Namespace").asText());
+        assertEquals("Cache", directive.get("Dimensions").get(0).get(0).asText());
+        assertEquals("CacheHitRatio", directive.get("Metrics").get(1).get("Name").asText());
+        assertEquals("Count", directive.get("Metrics").get(0).get("Unit").asText());
+        assertEquals("latest", log.get("Cache").asText());
+        assertEquals(3, log.get("CacheHits").asDouble());
+        assertEquals(0.75, log.get("CacheHitRatio").asDouble());
+    }
+}
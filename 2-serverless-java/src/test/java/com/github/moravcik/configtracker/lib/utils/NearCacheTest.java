@@ -0,0 +1,94 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NearCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger markerLoads = new AtomicInteger();
+
+    private NearCache<String, Integer> createCache(int maxSize) {
+        return new NearCache<>(maxSize, Duration.ofSeconds(5), now::get);
+    }
+
+    private String loadMarker(String marker) {
+        markerLoads.incrementAndGet();
+        return marker;
+    }
+
+    @Test
+    public void testGet_WithinTtl() {
+        NearCache<String, Integer> cache = createCache(10);
+        assertNull(cache.get("a", key -> loadMarker("v1")));
+        cache.put("a", 1, "v1");
+
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(1, cache.get("a", key -> loadMarker("v2")));
+        assertEquals(0, markerLoads.get());
+
+        NearCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertEquals(0, stats.since(stats).hitRatio());
+        assertEquals(1, stats.since(new NearCache.Stats(0, 0, 1, 0, 0)).hitRatio());
+    }
+
+    @Test
+    public void testGet_Revalidate() {
+        NearCache<String, Integer> cache = createCache(10);
+        cache.put("a", 1, "v1");
+
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(1, cache.get("a", key -> loadMarker("v1")));
+        // Renewed for another TTL
+        now.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(1, cache.get("a", key -> loadMarker("v1")));
+        assertEquals(1, markerLoads.get());
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertNull(cache.get("a", key -> loadMarker("v2")));
+        assertEquals(0, cache.stats().size());
+        assertEquals(1, cache.stats().revalidations());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    public void testGetCurrent_ByMarkerWithinTtl() {
+        NearCache<String, Integer> cache = createCache(10);
+        cache.put("a", 1, "v1");
+
+        assertEquals(1, cache.getCurrent("a", "v1"));
+        assertNull(cache.getCurrent("a", "v2"));
+        // Entry of the previous marker is removed
+        assertNull(cache.get("a", key -> loadMarker("v1")));
+
+        cache.put("a", 2, "v2");
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals(2, cache.getCurrent("a", "v2"));
+        assertEquals(2, cache.get("a", key -> loadMarker("v3")));
+        assertEquals(0, markerLoads.get());
+
+        NearCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.revalidations());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsed() {
+        NearCache<String, Integer> cache = createCache(2);
+        cache.put("a", 1, "v1");
+        cache.put("b", 2, "v1");
+        assertEquals(1, cache.get("a", key -> loadMarker("v1"))); // "b" is now least recently used
+        cache.put("c", 3, "v1");
+
+        assertNull(cache.get("b", key -> loadMarker("v1")));
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+
+public class ObjectPathTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static JsonNode config;
+
+    @BeforeAll
+    public static void loadConfig() throws Exception {
+        config = objectMapper.readTree(ObjectPathTest.class.getResourceAsStream("/example-config-v2.json"));
+    }
+
+    @Test
+    public void testResolve_NestedArrayField() {
+        JsonNode node = ObjectPath.compile("creditPolicy.exceptions[1].maxCreditLimit").resolve(config);
+
+        assertNotNull(node);
+        assertEquals(30000, node.intValue());
+    }
+
+    @Test
+    public void testResolve_Subtree() {
+        JsonNode node = ObjectPath.compile("riskScoring.thresholds").resolve(config);
+
+        assertNotNull(node);
+        assertTrue(node.isObject());
+        assertEquals(750, node.get("low").intValue());
+    }
+
+    @Test
+    public void testResolve_MissingPath() {
+        assertNull(ObjectPath.compile("creditPolicy.exceptions[5].segment").resolve(config));
+        assertNull(ObjectPath.compile("creditPolicy.unknown").resolve(config));
+        assertNull(ObjectPath.compile("creditPolicy[0]").resolve(config));
+    }
+
+    @Test
+    public void testResolve_RootArray() throws Exception {
+        JsonNode array = objectMapper.readTree("[[1, 2], [3, {\"name\": \"John\"}]]");
+
+        assertEquals(2, ObjectPath.compile("[0][1]").resolve(array).intValue());
+        assertEquals("John", ObjectPath.compile("[1][1].name").resolve(array).textValue());
+    }
+
+    @Test
+    public void testCompile_Cached() {
+        assertSame(ObjectPath.compile("approvalPolicy.levels[0].role"), ObjectPath.compile("approvalPolicy.levels[0].role"));
+    }
+
+    @Test
+    public void testCompileAll() {
+        List<ObjectPath> paths = ObjectPath.compileAll("creditPolicy.currency, approvalPolicy.twoManRule,");
+
+        assertEquals(2, paths.size());
+        assertEquals("creditPolicy.currency", paths.get(0).getPath());
+        assertEquals("approvalPolicy.twoManRule", paths.get(1).getPath());
+    }
+
+    @Test
+    public void testCompile_InvalidPaths() {
+        for (String path : List.of(".creditPolicy", "creditPolicy.", "creditPolicy..currency", "levels[x]", "levels[0", "levels[-1]", "levels[0]name")) {
+            assertThrows(IllegalArgumentException.class, () -> ObjectPath.compile(path), path);
+        }
+    }
+}
@@ -157,4 +157,73 @@ public class ObjectUtilsTest {
         assertEquals(ObjectUtils.DifferenceType.REMOVE, userDiff.type);
         assertEquals(Map.of("name", "Jane", "age", 25), userDiff.oldValue);
     }
+
+    @Test
+    public void testCalculateDifferences_ArrayUpdateObject() {
+        Map<String, Object> oldObj = Map.of("exceptions", List.of(
+            Map.of("segment", "VIP", "maxCreditLimit", 150000, "requiresTwoManRule", true)
+        ));
+        Map<String, Object> newObj = Map.of("exceptions", List.of(
+            Map.of("segment", "BONUS", "maxCreditLimit", 30000, "requiresTwoManRule", false)
+        ));
+
+        List<ObjectUtils.Difference> differences = ObjectUtils.calculateDifferences(oldObj, newObj, false);
+
+        assertEquals(1, differences.size());
+        ObjectUtils.Difference diff = differences.get(0);
+        assertEquals(ObjectUtils.DifferenceType.UPDATE, diff.type);
+        assertEquals("exceptions[0]", diff.path);
+        assertEquals(Map.of("segment", "VIP", "maxCreditLimit", 150000, "requiresTwoManRule", true), diff.oldValue);
+        assertEquals(Map.of("segment", "BONUS", "maxCreditLimit", 30000, "requiresTwoManRule", false), diff.newValue);
+    }
+
+    @Test
+    public void testCalculateDifferences_RemovedNestedSubtree() {
+        Map<String, Object> oldObj = Map.of(
+            "creditPolicy", Map.of(
+                "maxCreditLimit", 50000,
+                "exceptions", List.of(Map.of("segment", "VIP"), Map.of("segment", "BONUS"))),
+            "currency", "EUR"
+        );
+        Map<String, Object> newObj = Map.of("currency", "EUR");
+
+        List<ObjectUtils.Difference> differences = ObjectUtils.calculateDifferences(oldObj, newObj, false);
+
+        assertEquals(1, differences.size());
+        ObjectUtils.Difference diff = differences.get(0);
+        assertEquals(ObjectUtils.DifferenceType.REMOVE, diff.type);
+        assertEquals("creditPolicy", diff.path);
+        assertEquals(oldObj.get("creditPolicy"), diff.oldValue);
+        assertNull(diff.newValue);
+    }
+
+    @Test
+    public void testCalculateDifferences_MixedNestedChanges() {
+        Map<String, Object> oldObj = Map.of("riskScoring", Map.of(
+            "weights", Map.of("age", 0.1, "incomeToDebtRatio", 0.4),
+            "thresholds", Map.of("low", 700, "high", 600)
+        ));
+        Map<String, Object> newObj = Map.of("riskScoring", Map.of(
+            "weights", Map.of("incomeToDebtRatio", 0.5),
+            "thresholds", Map.of("low", 700, "high", 600)
+        ));
+
+        List<ObjectUtils.Difference> differences = ObjectUtils.calculateDifferences(oldObj, newObj, false);
+
+        assertEquals(2, differences.size());
+        ObjectUtils.Difference ageDiff = differences.stream()
+            .filter(d -> d.path.equals("riskScoring.weights.age"))
+            .findFirst().orElse(null);
+        assertNotNull(ageDiff);
+        assertEquals(ObjectUtils.DifferenceType.REMOVE, ageDiff.type);
+        assertEquals(0.1, ageDiff.oldValue);
+
+        ObjectUtils.Difference ratioDiff = differences.stream()
+            .filter(d -> d.path.equals("riskScoring.weights.incomeToDebtRatio"))
+            .findFirst().orElse(null);
+        assertNotNull(ratioDiff);
+        assertEquals(ObjectUtils.DifferenceType.UPDATE, ratioDiff.type);
+        assertEquals(0.4, ratioDiff.oldValue);
+        assertEquals(0.5, ratioDiff.newValue);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import com.github.moravcik.configtracker.lib.model.ConfigPathChangeItem;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Set;
+
+public class PathChangeQueryPlannerTest {
+
+    private static final String FROM = "2025-01-01T00:00:00.000Z";
+    private static final String TO = "2025-02-01T00:00:00.000Z";
+    private static final String CURSOR = "2025-01-15T00:00:00.000Z";
+
+    @Test
+    public void testPlan_TypeOnPrimaryKey() {
+        PathChangeQueryPlanner.Plan plan = PathChangeQueryPlanner.plan("id1", "UPDATE", null, false, FROM, TO, null, true);
+
+        assertNull(plan.indexName());
+        assertEquals("pk = :pk AND sk BETWEEN :skFrom AND :skTo", plan.keyConditionExpression());
+        assertNull(plan.filterExpression());
+        assertEquals("CONFIG_PATH_CHANGE#id1", plan.attributeValues().get(":pk").s());
+        assertEquals("UPDATE#" + FROM, plan.attributeValues().get(":skFrom").s());
+        assertEquals("UPDATE#" + TO + "#\uffff", plan.attributeValues().get(":skTo").s());
+
+        PathChangeQueryPlanner.Plan openPlan = PathChangeQueryPlanner.plan("id1", "UPDATE", null, false, null, null, null, true);
+        assertEquals("UPDATE#", openPlan.attributeValues().get(":skFrom").s());
+        assertEquals("UPDATE#\uffff", openPlan.attributeValues().get(":skTo").s());
+    }
+
+    @Test
+    public void testPlan_SinglePathOnPathIndex() {
+        PathChangeQueryPlanner.Plan plan = PathChangeQueryPlanner.plan("id1", "ADD", "creditPolicy.currency", true, FROM, null, null, true);
+
+        assertEquals(ConfigPathChangeItem.CONFIG_PATH_INDEX, plan.indexName());
+        assertEquals("pk = :pk AND pathSk BETWEEN :pathFrom AND :pathTo", plan.keyConditionExpression());
+        assertEquals("begins_with(sk, :type)", plan.filterExpression());
+        assertEquals("creditPolicy.currency#" + FROM, plan.attributeValues().get(":pathFrom").s());
+        assertEquals("creditPolicy.currency#\uffff", plan.attributeValues().get(":pathTo").s());
+        assertEquals(Set.of(":pk", ":pathFrom", ":pathTo", ":type"), plan.attributeValues().keySet());
+    }
+
+    @Test
+    public void testPlan_PathPrefixOnTimeIndex() {
+        PathChangeQueryPlanner.Plan plan = PathChangeQueryPlanner.plan("id1", null, "creditPolicy.", false, null, null, null, false);
+
+        assertEquals(ConfigPathChangeItem.CONFIG_TIME_INDEX, plan.indexName());
+        assertEquals("pk = :pk", plan.keyConditionExpression());
+        assertEquals("begins_with(#path, :path)", plan.filterExpression());
+        assertEquals(Set.of(":pk", ":path"), plan.attributeValues().keySet());
+    }
+
+    @Test
+    public void testPlan_TimeWindowOnTimeIndex() {
+        PathChangeQueryPlanner.Plan plan = PathChangeQueryPlanner.plan("id1", null, "approvalPolicy.levels", true, FROM, TO, null, true);
+
+        assertEquals(ConfigPathChangeItem.CONFIG_TIME_INDEX, plan.indexName());
+        assertEquals("pk = :pk AND timeSk BETWEEN :tsFrom AND :tsTo", plan.keyConditionExpression());
+        assertEquals("begins_with(#path, :path)", plan.filterExpression());
+        assertEquals(TO + "#\uffff", plan.attributeValues().get(":tsTo").s());
+        assertEquals(Set.of(":pk", ":path", ":tsFrom", ":tsTo"), plan.attributeValues().keySet());
+    }
+
+    @Test
+    public void testPlan_CursorIsKeyRange() {
+        PathChangeQueryPlanner.Plan ascending = PathChangeQueryPlanner.plan("id1", null, "a", true, FROM, null, CURSOR, true);
+        assertEquals("a#" + CURSOR + "#\uffff", ascending.attributeValues().get(":pathFrom").s());
+        assertEquals("a#\uffff", ascending.attributeValues().get(":pathTo").s());
+
+        PathChangeQueryPlanner.Plan descending = PathChangeQueryPlanner.plan("id1", "ADD", null, false, FROM, TO, CURSOR, false);
+        assertEquals("ADD#" + FROM, descending.attributeValues().get(":skFrom").s());
+        assertEquals("ADD#" + CURSOR, descending.attributeValues().get(":skTo").s());
+
+        PathChangeQueryPlanner.Plan time = PathChangeQueryPlanner.plan("id1", null, null, false, null, null, CURSOR, true);
+        assertEquals("pk = :pk AND timeSk >= :tsFrom", time.keyConditionExpression());
+        assertEquals(CURSOR + "#\uffff", time.attributeValues().get(":tsFrom").s());
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.moravcik.configtracker.lib.utils;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sns.SnsAsyncClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
+import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishResponse;
+import software.amazon.awssdk.services.sns.model.SnsException;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+public class SnsBatchPublisherTest {
+
+    private static final String TOPIC_ARN = "arn:aws:sns:eu-west-1:123456789012:config-changes";
+
+    /**
+     * Fake client which fails batch entries with the given messages, single publish fails only for "poison" message.
+     */
+    private static class FakeSnsClient implements SnsAsyncClient {
+        final Set<String> failingInBatch;
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        final List<String> published = Collections.synchronizedList(new ArrayList<>());
+        final List<String> publishedSingle = Collections.synchronizedList(new ArrayList<>());
+
+        FakeSnsClient(Set<String> failingInBatch) {
+            this.failingInBatch = failingInBatch;
+        }
+
+        @Override
+        public CompletableFuture<PublishBatchResponse> publishBatch(PublishBatchRequest request) {
+            batchSizes.add(request.publishBatchRequestEntries().size());
+            List<PublishBatchResultEntry> successful = new ArrayList<>();
+            List<BatchResultErrorEntry> failed = new ArrayList<>();
+            for (PublishBatchRequestEntry entry : request.publishBatchRequestEntries()) {
+                if (failingInBatch.contains(entry.message())) {
+                    failed.add(BatchResultErrorEntry.builder().id(entry.id()).code("InternalError").senderFault(false).build());
+                } else {
+                    published.add(entry.message());
+                    successful.add(PublishBatchResultEntry.builder().id(entry.id()).build());
+                }
+            }
+            return CompletableFuture.completedFuture(PublishBatchResponse.builder().successful(successful).failed(failed).build());
+        }
+
+        @Override
+        public CompletableFuture<PublishResponse> publish(PublishRequest request) {
+            if ("poison".equals(request.message())) {
+                return CompletableFuture.failedFuture(SnsException.builder().message("Publish failed").build());
+            }
+            published.add(request.message());
+            publishedSingle.add(request.message());
+            return CompletableFuture.completedFuture(PublishResponse.builder().messageId("id-" + request.message()).build());
+        }
+
+        @Override
+        public String serviceName() {
+            return "sns";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static List<PublishBatchRequestEntry> createEntries(List<String> messages) {
+        return IntStream.range(0, messages.size())
+                .mapToObj(i -> PublishBatchRequestEntry.builder().id("entry-" + i).message(messages.get(i)).build())
+                .toList();
+    }
+
+    @Test
+    public void testPublish_Batches() {
+        FakeSnsClient client = new FakeSnsClient(Set.of());
+        List<String> messages = IntStream.range(0, 23).mapToObj(i -> "message-" + i).toList();
+
+        List<String> failedIds = new SnsBatchPublisher(client, TOPIC_ARN).publish(createEntries(messages));
+
+        assertTrue(failedIds.isEmpty());
+        assertEquals(List.of(10, 10, 3), client.batchSizes);
+        assertEquals(messages, client.published);
+    }
+
+    @Test
+    public void testPublish_RetryFailedEntriesIndividually() {
+        FakeSnsClient client = new FakeSnsClient(Set.of("message-1", "poison"));
+
+        List<String> failedIds = new SnsBatchPublisher(client, TOPIC_ARN)
+                .publish(createEntries(List.of("message-0", "message-1", "poison", "message-3")));
+
+        assertEquals(List.of("entry-2"), failedIds);
+        assertEquals(List.of("message-1"), client.publishedSingle);
+        assertEquals(Set.of("message-0", "message-1", "message-3"), Set.copyOf(client.published));
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.moravcik.configtracker.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.moravcik.configtracker.lib.repository.InMemoryConfigRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class ConfigServerTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private ConfigServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new ConfigServer(0, new InMemoryConfigRepository());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String readExampleConfig() throws Exception {
+        return new String(getClass().getResourceAsStream("/example-config.json").readAllBytes());
+    }
+
+    @Test
+    public void testHealth() throws Exception {
+        HttpResponse<String> response = send(request("/health"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("UP", objectMapper.readTree(response.body()).get("status").asText());
+    }
+
+    @Test
+    public void testConfigLifecycle() throws Exception {
+        HttpResponse<String> created = send(request("/config")
+                .POST(HttpRequest.BodyPublishers.ofString(readExampleConfig())));
+        assertEquals(200, created.statusCode());
+        String configId = objectMapper.readTree(created.body()).get("configId").asText();
+
+        HttpResponse<String> latest = send(request("/config/" + configId + "?paths=creditPolicy.currency"));
+        assertEquals(200, latest.statusCode());
+        assertEquals("EUR", objectMapper.readTree(latest.body()).get("values").get("creditPolicy.currency").asText());
+
+        String etag = latest.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> notModified = send(request("/config/" + configId + "?paths=creditPolicy.currency")
+                .header("If-None-Match", etag));
+        assertEquals(304, notModified.statusCode());
+        assertTrue(notModified.body().isEmpty());
+
+        HttpResponse<String> updated = send(request("/config/" + configId)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"creditPolicy\":{\"currency\":\"USD\"}}")));
+        assertEquals(200, updated.statusCode());
+
+        JsonNode changes = objectMapper.readTree(send(request("/config/" + configId + "/change?path=creditPolicy")).body());
+        assertEquals(1, changes.size());
+        assertEquals("creditPolicy.currency", changes.get(0).get("pathChanges").get(0).get("path").asText());
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        assertEquals(404, send(request("/unknown")).statusCode());
+        assertEquals(404, send(request("/config/missing")).statusCode());
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.moravcik.configtracker.tools;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LatestPointerBackfillTest {
+
+    private static final String TABLE_NAME = "ConfigTable";
+
+    /**
+     * Fake client of a table with versions of configs id1 (two versions, no pointer) and id2 (with pointer),
+     * scanned in two pages.
+     */
+    private static class FakeDynamoDbClient implements DynamoDbClient {
+        final Map<String, Map<String, AttributeValue>> items = new HashMap<>();
+        final List<PutItemRequest> puts = new ArrayList<>();
+
+        FakeDynamoDbClient() {
+            addVersion("id1", "2025-01-01T00:00:00.000Z");
+            addVersion("id1", "2025-01-02T00:00:00.000Z");
+            addVersion("id2", "2025-01-01T00:00:00.000Z");
+            items.put("CONFIG_LATEST#id2|LATEST", Map.of("pk", AttributeValue.fromS("CONFIG_LATEST#id2")));
+        }
+
+        private void addVersion(String configId, String timestamp) {
+            items.put("CONFIG#" + configId + "|" + timestamp, Map.of(
+                    "pk", AttributeValue.fromS("CONFIG#" + configId),
+                    "sk", AttributeValue.fromS(timestamp),
+                    "entityType", AttributeValue.fromS("CONFIG"),
+                    "configId", AttributeValue.fromS(configId),
+                    "timestamp", AttributeValue.fromS(timestamp),
+                    "config", AttributeValue.fromS("{\"configId\":\"" + configId + "\"}")));
+        }
+
+        @Override
+        public ScanResponse scan(ScanRequest request) {
+            List<Map<String, AttributeValue>> versions = items.values().stream()
+                    .filter(item -> item.containsKey("entityType"))
+                    .sorted((a, b) -> (a.get("pk").s() + a.get("sk").s()).compareTo(b.get("pk").s() + b.get("sk").s()))
+                    .toList();
+            return !request.hasExclusiveStartKey()
+                    ? ScanResponse.builder()
+                            .items(versions.subList(0, 2))
+                            .lastEvaluatedKey(Map.of("pk", AttributeValue.fromS("CONFIG#id1")))
+                            .build()
+                    : ScanResponse.builder().items(versions.subList(2, versions.size())).build();
+        }
+
+        @Override
+        public GetItemResponse getItem(GetItemRequest request) {
+            return GetItemResponse.builder()
+                    .item(items.get(request.key().get("pk").s() + "|" + request.key().get("sk").s()))
+                    .build();
+        }
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            puts.add(request);
+            return PutItemResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void testRun() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+
+        assertEquals(1, new LatestPointerBackfill(client, TABLE_NAME).run());
+
+        assertEquals(1, client.puts.size());
+        Map<String, AttributeValue> pointer = client.puts.get(0).item();
+        assertEquals("CONFIG_LATEST#id1", pointer.get("pk").s());
+        assertEquals("LATEST", pointer.get("sk").s());
+        assertEquals("CONFIG_LATEST", pointer.get("entityType").s());
+        assertEquals("2025-01-02T00:00:00.000Z", pointer.get("timestamp").s());
+        assertEquals("2", pointer.get("version").n());
+        assertEquals("CONFIG", pointer.get("listPk").s());
+        assertEquals("id1", pointer.get("listSk").s());
+        assertNotNull(pointer.get("config"));
+        assertEquals("attribute_not_exists(pk)", client.puts.get(0).conditionExpression());
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.moravcik.configtracker.tools;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class PathChangeIndexBackfillTest {
+
+    private static final String TABLE_NAME = "ConfigTable";
+
+    /**
+     * Fake client returning two scan pages of path changes, the last item of them is deleted before its update.
+     */
+    private static class FakeDynamoDbClient implements DynamoDbClient {
+        final List<UpdateItemRequest> updates = new ArrayList<>();
+
+        @Override
+        public ScanResponse scan(ScanRequest request) {
+            assertEquals(TABLE_NAME, request.tableName());
+            return !request.hasExclusiveStartKey()
+                    ? ScanResponse.builder()
+                            .items(List.of(pathChange("UPDATE", "a.b", "2025-01-01T00:00:00.000Z")))
+                            .lastEvaluatedKey(Map.of("pk", AttributeValue.fromS("CONFIG_PATH_CHANGE#id1")))
+                            .build()
+                    : ScanResponse.builder()
+                            .items(List.of(pathChange("ADD", "c", "2025-01-02T00:00:00.000Z"),
+                                    pathChange("ADD", "d", "2025-01-03T00:00:00.000Z")))
+                            .build();
+        }
+
+        @Override
+        public UpdateItemResponse updateItem(UpdateItemRequest request) {
+            if (request.key().get("sk").s().endsWith("#d")) {
+                throw ConditionalCheckFailedException.builder().message("Deleted").build();
+            }
+            updates.add(request);
+            return UpdateItemResponse.builder().build();
+        }
+
+        private static Map<String, AttributeValue> pathChange(String type, String path, String timestamp) {
+            return Map.of(
+                    "pk", AttributeValue.fromS("CONFIG_PATH_CHANGE#id1"),
+                    "sk", AttributeValue.fromS(type + "#" + timestamp + "#" + path),
+                    "type", AttributeValue.fromS(type),
+                    "path", AttributeValue.fromS(path),
+                    "timestamp", AttributeValue.fromS(timestamp));
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void testRun() {
+        FakeDynamoDbClient client = new FakeDynamoDbClient();
+
+        assertEquals(2, new PathChangeIndexBackfill(client, TABLE_NAME).run());
+
+        assertEquals(2, client.updates.size());
+        UpdateItemRequest update = client.updates.get(0);
+        assertEquals("UPDATE#2025-01-01T00:00:00.000Z#a.b", update.key().get("sk").s());
+        assertEquals("a.b#2025-01-01T00:00:00.000Z", update.expressionAttributeValues().get(":pathSk").s());
+        assertEquals("2025-01-01T00:00:00.000Z#UPDATE#a.b", update.expressionAttributeValues().get(":timeSk").s());
+        assertEquals("c#2025-01-02T00:00:00.000Z", client.updates.get(1).expressionAttributeValues().get(":pathSk").s());
+    }
+}